@@ -3,10 +3,12 @@ Python AI服务API
 为Java应用提供AI能力接口
 """
 
-from flask import Flask, request, jsonify
+from flask import Flask, request, jsonify, Response, stream_with_context
 from transformers import pipeline
 import torch
 import logging
+import json
+import time
 
 app = Flask(__name__)
 
@@ -58,6 +60,12 @@ class SimpleChatbot:
         
         # 默认回复
         return self.responses["默认"], 0.3
+    
+    def stream_tokens(self, reply):
+        """逐字生成回复（模拟模型逐 token 输出）"""
+        for token in reply:
+            time.sleep(0.02)
+            yield token
 
 # 全局服务实例
 ai_manager = AIServiceManager()
@@ -102,6 +110,35 @@ def text_classification():
         logger.error(f"分类错误: {e}")
         return jsonify({"error": str(e)}), 500
 
+@app.route('/api/classify/batch', methods=['POST'])
+def batch_text_classification():
+    """批量文本分类API，结果顺序与输入顺序一致"""
+    try:
+        data = request.get_json()
+        texts = data.get('texts', [])
+        
+        if not texts:
+            return jsonify({"error": "缺少文本内容"}), 400
+        
+        classifier = ai_manager.services.get('text_classifier')
+        if classifier:
+            # 模型一次推理整批文本
+            outputs = classifier(texts)
+            results = [{"classification": o['label'], "confidence": o['score']} for o in outputs]
+        else:
+            results = []
+            for text in texts:
+                classification, confidence = fallback_classification(text)
+                results.append({"classification": classification, "confidence": confidence})
+        
+        logger.info(f"批量文本分类: {len(texts)} 条")
+        
+        return jsonify({"results": results})
+        
+    except Exception as e:
+        logger.error(f"批量分类错误: {e}")
+        return jsonify({"error": str(e)}), 500
+
 @app.route('/api/chat', methods=['POST'])
 def chat_endpoint():
     """聊天API"""
@@ -128,6 +165,40 @@ def chat_endpoint():
         logger.error(f"聊天错误: {e}")
         return jsonify({"error": str(e)}), 500
 
+def sse_event(payload, event=None):
+    """格式化一条 Server-Sent Events 消息"""
+    lines = []
+    if event:
+        lines.append(f"event: {event}")
+    lines.append(f"data: {json.dumps(payload, ensure_ascii=False)}")
+    return "\n".join(lines) + "\n\n"
+
+@app.route('/api/chat/stream', methods=['POST'])
+def chat_stream_endpoint():
+    """流式聊天API（SSE）：逐个推送 token 事件，最后推送带完整回复和置信度的 done 事件"""
+    data = request.get_json(silent=True) or {}
+    message = data.get('message', '')
+    
+    if not message:
+        return jsonify({"error": "缺少消息内容"}), 400
+    
+    chatbot = ai_manager.services.get('chatbot')
+    
+    def generate():
+        try:
+            reply, confidence = chatbot.get_response(message)
+            for token in chatbot.stream_tokens(reply):
+                yield sse_event({"token": token})
+            logger.info(f"流式聊天交互: '{message}' -> '{reply}'")
+            yield sse_event({"reply": reply, "confidence": confidence}, event="done")
+        except Exception as e:
+            logger.error(f"流式聊天错误: {e}")
+            yield sse_event({"error": str(e)}, event="error")
+    
+    return Response(stream_with_context(generate()),
+                    mimetype='text/event-stream',
+                    headers={"Cache-Control": "no-cache", "X-Accel-Buffering": "no"})
+
 def fallback_classification(text):
     """降级分类方法"""
     positive_keywords = ['好', '棒', '喜欢', '优秀', '满意']
@@ -145,13 +216,31 @@ def fallback_classification(text):
 
 @app.route('/api/image/process', methods=['POST'])
 def image_processing():
-    """图像处理API"""
+    """图像处理API
+    请求体为原始图像字节（application/octet-stream），支持 Content-Length 和分块传输编码，
+    按块读取而不是一次性载入内存
+    """
     try:
-        # 这里应该是实际的图像处理逻辑
-        # 为了演示，返回模拟结果
+        start = time.perf_counter()
+        received = 0
+        while True:
+            chunk = request.stream.read(64 * 1024)
+            if not chunk:
+                break
+            received += len(chunk)
+            # 这里应该是实际的图像处理逻辑（如把数据块送入解码器）
+        
+        if received == 0:
+            return jsonify({"error": "缺少图像数据"}), 400
+        
+        processing_time = int((time.perf_counter() - start) * 1000)
+        logger.info(f"图像处理: 接收 {received} 字节, 耗时 {processing_time}ms")
+        
+        # 为了演示，检测结果仍为模拟值
         return jsonify({
             "objects_detected": 3,
-            "processing_time": 150,
+            "bytes_received": received,
+            "processing_time": processing_time,
             "success": True
         })
     except Exception as e:
@@ -164,7 +253,9 @@ def start_server():
     print("可用接口:")
     print("  GET  /api/health     - 健康检查")
     print("  POST /api/classify   - 文本分类")
+    print("  POST /api/classify/batch - 批量文本分类")
     print("  POST /api/chat       - 聊天机器人")
+    print("  POST /api/chat/stream - 流式聊天（SSE）")
     print("  POST /api/image/process - 图像处理")
     
     app.run(host='0.0.0.0', port=5000, debug=False)
@@ -0,0 +1,103 @@
+package study.all.aiintegration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI服务响应解析与请求序列化基准
+ * map* 为原来的 readValue(..., Map.class) 加字段强转，typed* 为 JsonParser 流式绑定到类型化对象；
+ * 请求侧比较 HashMap 加 writeValueAsBytes 与缓存的 ObjectWriter 序列化请求对象。
+ * 使用 -prof gc 可以看到每次操作的分配字节数（gc.alloc.rate.norm）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AIResponseParsingBenchmark {
+
+    private static final String TEXT = "这个产品真的很好用，我非常喜欢";
+
+    private ObjectMapper objectMapper;
+    private JsonFactory jsonFactory;
+    private ObjectWriter classifyRequestWriter;
+    private byte[] classifyResponse;
+    private byte[] chatResponse;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        jsonFactory = objectMapper.getFactory();
+        classifyRequestWriter = objectMapper.writerFor(AIApiModels.ClassifyRequest.class);
+        classifyResponse = ("{\"text\":\"" + TEXT + "\",\"classification\":\"positive\","
+            + "\"confidence\":0.9876,\"model\":\"roberta-base-finetuned-chinanews-chinese\"}")
+            .getBytes(StandardCharsets.UTF_8);
+        chatResponse = ("{\"reply\":\"你好！我是AI助手，有什么可以帮助你的吗？\",\"confidence\":0.8,"
+            + "\"original_message\":\"你好\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String mapParseClassify() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(classifyResponse, Map.class);
+        return (String) response.get("classification");
+    }
+
+    @Benchmark
+    public String typedParseClassify() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(classifyResponse)) {
+            parser.nextToken();
+            return AIApiModels.ClassifyResponse.parse(parser).getClassification();
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public AIIntegrationService.ChatResponse mapParseChat() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(chatResponse, Map.class);
+        return AIIntegrationService.ChatResponse.builder()
+            .response((String) response.get("reply"))
+            .confidence(((Number) response.get("confidence")).doubleValue())
+            .build();
+    }
+
+    @Benchmark
+    public AIIntegrationService.ChatResponse typedParseChat() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(chatResponse)) {
+            parser.nextToken();
+            return AIApiModels.parseChatResponse(parser);
+        }
+    }
+
+    @Benchmark
+    public byte[] mapWriteRequest() throws IOException {
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("text", TEXT);
+        return objectMapper.writeValueAsBytes(requestBody);
+    }
+
+    @Benchmark
+    public byte[] typedWriteRequest() throws IOException {
+        return classifyRequestWriter.writeValueAsBytes(new AIApiModels.ClassifyRequest(TEXT));
+    }
+}
@@ -0,0 +1,66 @@
+package study.all.aiintegration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 降级分类基准
+ * contains 为原来逐个关键词 String.contains 的规则，lexicon 为 Aho-Corasick 词典分类器；
+ * lexiconLarge 使用 2000 个词条的词典，耗时应与小词典基本相同（只取决于文本长度和命中次数）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FallbackClassifierBenchmark {
+
+    @Param({"这个产品真的很好用，我非常喜欢",
+        "物流太慢了，包装也破了，客服态度一般，总体来说这次购物体验并不理想，以后大概不会再来了"})
+    public String text;
+
+    private LexiconClassifier lexicon;
+    private LexiconClassifier lexiconLarge;
+
+    @Setup
+    public void setup() {
+        lexicon = LexiconClassifier.defaults();
+        LexiconClassifier.Builder builder = LexiconClassifier.builder();
+        for (int i = 0; i < 2000; i++) {
+            builder.term("词" + i, i % 2 == 0 ? "positive" : "negative", 1);
+        }
+        lexiconLarge = builder.term("喜欢", "positive", 1).term("不理想", "negative", 2).build();
+    }
+
+    @Benchmark
+    public String contains() {
+        if (text.contains("好") || text.contains("棒") || text.contains("喜欢")) {
+            return "positive";
+        } else if (text.contains("坏") || text.contains("差") || text.contains("讨厌")) {
+            return "negative";
+        }
+        return "neutral";
+    }
+
+    @Benchmark
+    public String lexicon() {
+        return lexicon.classify(text);
+    }
+
+    @Benchmark
+    public String lexiconLarge() {
+        return lexiconLarge.classify(text);
+    }
+}
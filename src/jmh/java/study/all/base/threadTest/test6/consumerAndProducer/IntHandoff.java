@@ -0,0 +1,87 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+import study.all.base.threadTest.test5.tongbu.ProducerConsumerDemo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试用的统一缓冲区视图
+ * 直接驱动各实现自身的放入/取出逻辑（关闭日志、去掉休眠）
+ */
+interface IntHandoff {
+
+    void put(int item) throws InterruptedException;
+
+    int take() throws InterruptedException;
+
+    /**
+     * 按名称创建对应实现的缓冲区
+     * @param impl     monitor / semaphore / lock / blockingQueue / timeout / ringBuffer
+     * @param capacity 缓冲区容量
+     */
+    static IntHandoff create(String impl, int capacity) {
+        return create(impl, capacity, true);
+    }
+
+    /**
+     * @param multiProducer 为 false 时环形缓冲区使用单生产者版本，其他实现忽略该参数
+     */
+    static IntHandoff create(String impl, int capacity, boolean multiProducer) {
+        switch (impl) {
+            case "monitor": {
+                MonitorProducerConsumer pc = new MonitorProducerConsumer(capacity, false);
+                return new IntHandoff() {
+                    public void put(int item) throws InterruptedException { pc.put(item); }
+                    public int take() throws InterruptedException { return pc.take(); }
+                };
+            }
+            case "semaphore": {
+                SemaphoreProducerConsumer pc = new SemaphoreProducerConsumer(capacity, false);
+                return new IntHandoff() {
+                    public void put(int item) throws InterruptedException { pc.put(item); }
+                    public int take() throws InterruptedException { return pc.take(); }
+                };
+            }
+            case "lock": {
+                ProducerConsumerDemo pc = new ProducerConsumerDemo(capacity, false);
+                return new IntHandoff() {
+                    public void put(int item) throws InterruptedException { pc.put(item); }
+                    public int take() throws InterruptedException { return pc.take(); }
+                };
+            }
+            case "blockingQueue": {
+                BlockQueueProducerConsumer pc = new BlockQueueProducerConsumer(capacity, false);
+                return new IntHandoff() {
+                    public void put(int item) throws InterruptedException { pc.put(item); }
+                    public int take() throws InterruptedException { return pc.take(); }
+                };
+            }
+            case "timeout": {
+                TimeoutProducerConsumer pc = new TimeoutProducerConsumer(capacity, false);
+                return new IntHandoff() {
+                    public void put(int item) throws InterruptedException {
+                        // 超时后重试，保证与其他实现一样不丢数据
+                        while (!pc.produceWithTimeout(item, 1, TimeUnit.SECONDS)) {
+                        }
+                    }
+                    public int take() throws InterruptedException {
+                        Integer item;
+                        while ((item = pc.consumeWithTimeout(1, TimeUnit.SECONDS)) == null) {
+                        }
+                        return item;
+                    }
+                };
+            }
+            case "ringBuffer": {
+                RingBufferProducerConsumer pc = new RingBufferProducerConsumer(
+                    capacity, multiProducer, false, RingBufferWaitStrategy.yielding());
+                return new IntHandoff() {
+                    public void put(int item) throws InterruptedException { pc.put(item); }
+                    public int take() throws InterruptedException { return pc.take(); }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("未知实现: " + impl);
+        }
+    }
+}
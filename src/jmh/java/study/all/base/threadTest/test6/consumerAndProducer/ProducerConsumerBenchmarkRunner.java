@@ -0,0 +1,68 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.Collection;
+
+/**
+ * 运行所有生产者-消费者基准，并用实测数据输出对比矩阵
+ * 命令行参数按 JMH 格式透传，例如 -p capacity=16 -f 2
+ */
+public class ProducerConsumerBenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .include(ProducerConsumerThroughputBenchmark.class.getSimpleName())
+            .include(ProducerConsumerLatencyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.println("\n一、吞吐量（产品/秒）与分配");
+        System.out.printf("%-14s %4s %4s %8s %16s %14s%n",
+            "实现", "生产", "消费", "容量", "吞吐量(ops/s)", "分配(B/op)");
+        for (RunResult result : results) {
+            if (!isBenchmark(result, ProducerConsumerThroughputBenchmark.class)) {
+                continue;
+            }
+            BenchmarkParams params = result.getParams();
+            System.out.printf("%-14s %4s %4s %8s %16.0f %14.2f%n",
+                params.getParam("impl"), params.getParam("producers"),
+                params.getParam("consumers"), params.getParam("capacity"),
+                result.getPrimaryResult().getScore(), allocPerOp(result));
+        }
+
+        System.out.println("\n二、往返延迟（纳秒，含两次交接）与分配");
+        System.out.printf("%-14s %8s %10s %10s %10s %14s%n",
+            "实现", "容量", "p50", "p99", "p99.9", "分配(B/op)");
+        for (RunResult result : results) {
+            if (!isBenchmark(result, ProducerConsumerLatencyBenchmark.class)) {
+                continue;
+            }
+            Statistics stats = result.getPrimaryResult().getStatistics();
+            System.out.printf("%-14s %8s %10.0f %10.0f %10.0f %14.2f%n",
+                result.getParams().getParam("impl"), result.getParams().getParam("capacity"),
+                stats.getPercentile(50), stats.getPercentile(99), stats.getPercentile(99.9),
+                allocPerOp(result));
+        }
+    }
+
+    private static boolean isBenchmark(RunResult result, Class<?> benchmarkClass) {
+        return result.getParams().getBenchmark().startsWith(benchmarkClass.getName());
+    }
+
+    private static double allocPerOp(RunResult result) {
+        Result<?> alloc = result.getSecondaryResults().get("gc.alloc.rate.norm");
+        return alloc == null ? Double.NaN : alloc.getScore();
+    }
+}
@@ -0,0 +1,72 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生产者-消费者交接延迟基准
+ * 基准线程向 ping 放入产品，回显线程取出后放入 pong，基准线程再取回；
+ * 采样得到的往返时间包含两次交接，单次交接延迟约为其一半
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProducerConsumerLatencyBenchmark {
+
+    @Param({"monitor", "semaphore", "lock", "blockingQueue", "timeout", "ringBuffer"})
+    String impl;
+
+    @Param({"1", "16", "1024"})
+    int capacity;
+
+    private IntHandoff ping;
+    private IntHandoff pong;
+    private Thread echo;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // ping 和 pong 各只有一个生产者
+        ping = IntHandoff.create(impl, capacity, false);
+        pong = IntHandoff.create(impl, capacity, false);
+        echo = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    pong.put(ping.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "echo-" + impl);
+        echo.setDaemon(true);
+        echo.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        echo.interrupt();
+        echo.join(1000);
+    }
+
+    @Benchmark
+    public int roundTrip() throws InterruptedException {
+        ping.put(++sequence);
+        return pong.take();
+    }
+}
@@ -0,0 +1,117 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 生产者-消费者吞吐量基准
+ * 每次调用由 producers 个生产者共放入 ITEMS 个产品，consumers 个消费者全部取走，
+ * 结果单位为每秒交接的产品数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProducerConsumerThroughputBenchmark {
+
+    static final int ITEMS = 100_000;
+
+    @Param({"monitor", "semaphore", "lock", "blockingQueue", "timeout", "ringBuffer"})
+    String impl;
+
+    @Param({"1", "2", "4"})
+    int producers;
+
+    @Param({"1", "2", "4"})
+    int consumers;
+
+    @Param({"1", "16", "1024"})
+    int capacity;
+
+    private IntHandoff handoff;
+    private ExecutorService pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        handoff = IntHandoff.create(impl, capacity, producers > 1);
+        pool = Executors.newFixedThreadPool(producers + consumers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public long transfer() throws Exception {
+        CountDownLatch done = new CountDownLatch(producers + consumers);
+        AtomicLong checksum = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int p = 0; p < producers; p++) {
+            int count = share(ITEMS, producers, p);
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < count; i++) {
+                        handoff.put(i);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            int count = share(ITEMS, consumers, c);
+            pool.execute(() -> {
+                long sum = 0;
+                try {
+                    for (int i = 0; i < count; i++) {
+                        sum += handoff.take();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    checksum.addAndGet(sum);
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("交接失败", failure.get());
+        }
+        return checksum.get();
+    }
+
+    /**
+     * 把 total 个产品平均分给 parts 个线程，前 total % parts 个线程多分一个
+     */
+    static int share(int total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+}
@@ -0,0 +1,99 @@
+package study.all.redisson.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.all.redisson.demo.PubSubDemo.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserMessage 编解码基准
+ * compact 为 CompactCodec（schema 变长编码，超过 256 字节时 LZ4 压缩），json 为 Jackson，jdk 为 Java 序列化；
+ * large 消息的 action 为约 2KB 的重复文本，用于观察压缩的收益和开销。
+ * 各编码的字节数在 Setup 中打印。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMessageCodecBenchmark {
+
+    @Param({"small", "large"})
+    public String size;
+
+    private UserMessage message;
+    private CompactCodec compactCodec;
+    private ObjectMapper objectMapper;
+    private byte[] compactBytes;
+    private byte[] jsonBytes;
+    private byte[] jdkBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        String action = "small".equals(size) ? "登录" : "浏览商品详情页并加入购物车，".repeat(50);
+        message = new UserMessage(1234567L, "张三", action);
+        compactCodec = CompactCodec.builder()
+            .register(1, UserMessage.class, UserMessage.SCHEMA)
+            .compressAbove(256)
+            .build();
+        objectMapper = new ObjectMapper();
+        compactBytes = compactCodec.toBytes(message);
+        jsonBytes = objectMapper.writeValueAsBytes(message);
+        jdkBytes = jdkEncode();
+        System.out.printf("%n[%s] 编码后大小: compact=%d, json=%d, jdk=%d 字节%n",
+            size, compactBytes.length, jsonBytes.length, jdkBytes.length);
+    }
+
+    @Benchmark
+    public byte[] compactEncode() throws IOException {
+        return compactCodec.toBytes(message);
+    }
+
+    @Benchmark
+    public Object compactDecode() throws IOException {
+        return compactCodec.fromBytes(compactBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Object jsonDecode() throws IOException {
+        return objectMapper.readValue(jsonBytes, UserMessage.class);
+    }
+
+    @Benchmark
+    public byte[] jdkEncode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object jdkDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(jdkBytes))) {
+            return in.readObject();
+        }
+    }
+}
@@ -110,6 +110,7 @@ public class RedissonDemoApplication {
         System.out.println("=========================================");
         System.out.println("1. 基础数据结构操作演示");
         System.out.println("   - RMap (分布式 Map)");
+        System.out.println("   - 近端缓存 (本地缓存 + 失效通知)");
         System.out.println("   - RList (分布式 List)");
         System.out.println("   - RSet (分布式 Set)");
         System.out.println("   - AtomicLong (原子操作)");
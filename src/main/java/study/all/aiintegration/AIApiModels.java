@@ -0,0 +1,191 @@
+package study.all.aiintegration;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Python AI服务接口的请求/响应模型
+ * 请求体是带 getter 的不可变对象，由按类型缓存的 ObjectWriter 直接序列化为字节；
+ * 响应用 JsonParser 逐个 token 绑定到类型化对象，不构建中间的 Map 树，未知字段直接跳过。
+ */
+final class AIApiModels {
+
+    private AIApiModels() {
+    }
+
+    /**
+     * POST /api/classify 请求体
+     */
+    static final class ClassifyRequest {
+        private final String text;
+
+        ClassifyRequest(String text) {
+            this.text = text;
+        }
+
+        public String getText() { return text; }
+    }
+
+    /**
+     * POST /api/classify/batch 请求体
+     */
+    static final class BatchClassifyRequest {
+        private final List<String> texts;
+
+        BatchClassifyRequest(List<String> texts) {
+            this.texts = texts;
+        }
+
+        public List<String> getTexts() { return texts; }
+    }
+
+    /**
+     * POST /api/chat 和 /api/chat/stream 请求体
+     */
+    static final class ChatRequest {
+        private final String message;
+
+        ChatRequest(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() { return message; }
+    }
+
+    /**
+     * 分类响应：{"classification": "...", "confidence": 0.9, ...}
+     */
+    static final class ClassifyResponse {
+        private String classification;
+        private double confidence;
+
+        static ClassifyResponse parse(JsonParser parser) throws IOException {
+            expectStartObject(parser);
+            ClassifyResponse response = new ClassifyResponse();
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "classification":
+                        response.classification = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                        break;
+                    case "confidence":
+                        response.confidence = value.isNumeric() ? parser.getDoubleValue() : 0.0;
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return response;
+        }
+
+        String getClassification() { return classification; }
+        double getConfidence() { return confidence; }
+    }
+
+    /**
+     * 批量分类响应：{"results": [{"classification": "..."}, ...]}，结果按请求顺序返回
+     */
+    static List<String> parseBatchClassifications(JsonParser parser) throws IOException {
+        expectStartObject(parser);
+        List<String> classifications = null;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                classifications = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    classifications.add(ClassifyResponse.parse(parser).getClassification());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return classifications;
+    }
+
+    /**
+     * 聊天响应：{"reply": "...", "confidence": 0.8, ...}；缓存中的聊天结果也使用同样的结构
+     */
+    static AIIntegrationService.ChatResponse parseChatResponse(JsonParser parser) throws IOException {
+        expectStartObject(parser);
+        String reply = null;
+        double confidence = 0.0;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "reply":
+                    reply = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case "confidence":
+                    confidence = value.isNumeric() ? parser.getDoubleValue() : 0.0;
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return AIIntegrationService.ChatResponse.builder()
+            .response(reply)
+            .confidence(confidence)
+            .build();
+    }
+
+    /**
+     * 缓存聊天结果时的序列化形式，与 /api/chat 响应字段一致
+     */
+    static final class ChatReply {
+        private final String reply;
+        private final double confidence;
+
+        ChatReply(AIIntegrationService.ChatResponse response) {
+            this.reply = response.getResponse();
+            this.confidence = response.getConfidence();
+        }
+
+        public String getReply() { return reply; }
+        public double getConfidence() { return confidence; }
+    }
+
+    /**
+     * 图像处理响应：{"objects_detected": 3, "success": true, ...}
+     */
+    static final class ImageResponse {
+        private int objectsDetected;
+        private boolean success = true;
+
+        static ImageResponse parse(JsonParser parser) throws IOException {
+            expectStartObject(parser);
+            ImageResponse response = new ImageResponse();
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "objects_detected":
+                        response.objectsDetected = value.isNumeric() ? parser.getIntValue() : 0;
+                        break;
+                    case "success":
+                        response.success = value != JsonToken.VALUE_FALSE;
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return response;
+        }
+
+        int getObjectsDetected() { return objectsDetected; }
+        boolean isSuccess() { return success; }
+    }
+
+    private static void expectStartObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("AI服务响应不是JSON对象: " + token);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package study.all.aiintegration;
+
+/**
+ * 单个接口的调用指标（JMX）
+ * 耗时单位为微秒，分位数取自 {@link LogLinearHistogram}，相对误差约 3%
+ */
+public interface AIEndpointMetricsMXBean {
+
+    String getEndpoint();
+
+    long getRequests();
+
+    long getSuccesses();
+
+    long getErrors();
+
+    long getCancelled();
+
+    long getFallbacks();
+
+    long getRejectedByCircuit();
+
+    long getRejectedByLimit();
+
+    long getRejectedByRateLimit();
+
+    long getInFlight();
+
+    long getTtfbP50Micros();
+
+    long getTtfbP99Micros();
+
+    long getTtfbP999Micros();
+
+    long getTotalP50Micros();
+
+    long getTotalP99Micros();
+
+    long getTotalP999Micros();
+
+    long getTotalMaxMicros();
+
+    double getTotalMeanMicros();
+
+    long getRequestBytesP50();
+
+    long getRequestBytesP99();
+
+    long getResponseBytesP50();
+
+    long getResponseBytesP99();
+
+    /**
+     * 清空直方图（计数器保留）
+     */
+    void resetHistograms();
+}
@@ -0,0 +1,692 @@
+package study.all.aiintegration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import study.all.redisson.config.RedissonConfig;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * AI服务HTTP客户端
+ * 基于 java.net.http.HttpClient 复用长连接（HTTP/1.1 keep-alive 或 HTTP/2 多路复用），
+ * 响应体以流的方式直接交给 Jackson 解析。
+ * 请求先经过集群限流（如已配置）、熔断器和自适应并发限制，后端故障或过载时直接抛出
+ * {@link AIServiceUnavailableException}，由调用方走降级逻辑。
+ */
+public class AIHttpClient {
+
+    // 耗时超过本次超时时间的这一比例即视为变慢，作为拥塞信号下调并发上限
+    private static final double SLOW_CALL_RATIO = 0.5;
+
+    private enum CallOutcome {
+        SUCCESS, FAILURE, IGNORED
+    }
+
+    private final AIServiceConfig config;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DistributedRateLimiter rateLimiter;
+    private final AIMetrics metrics;
+
+    public AIHttpClient(AIServiceConfig config, ObjectMapper objectMapper) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.httpClient = HttpClient.newBuilder()
+            .version(config.getHttpVersion())
+            .connectTimeout(config.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        this.circuitBreaker = new CircuitBreaker("ai-service",
+            config.getBreakerWindowSize(),
+            config.getBreakerMinimumCalls(),
+            config.getBreakerFailureRateThreshold(),
+            config.getBreakerOpenDuration(),
+            config.getBreakerHalfOpenPermits());
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+            config.getMinConcurrentRequests(),
+            config.getMaxConcurrentRequests(),
+            config.getConcurrencyBackoffRatio());
+        this.rateLimiter = config.getRateLimit() > 0
+            ? new DistributedRateLimiter(RedissonConfig::getClient, config.getRateLimiterName(),
+                config.getRateLimit(), config.getRateLimitInterval(), config.getRateLimitPrefetch(),
+                config.getRateLimitPolicy(), config.getRateLimitMaxWait())
+            : null;
+        this.metrics = config.getMetrics();
+    }
+
+    /**
+     * 发送JSON POST请求并把响应解析为指定类型
+     * @param path         接口路径，如 /api/classify
+     * @param requestBody  请求体对象
+     * @param timeout      本次请求的总时限，包括读取响应体；HttpRequest.timeout 只约束等待响应头，
+     *                     响应体中途停滞时由这里的时限中止
+     * @param responseType 响应类型
+     */
+    public <T> T postJson(String path, Object requestBody, Duration timeout, Class<T> responseType)
+            throws IOException, InterruptedException {
+        return postJson(path, requestBody, timeout, databind(responseType));
+    }
+
+    /**
+     * 发送JSON POST请求，响应体由 responseParser 以流式方式直接绑定，不经过 Map 等中间结构
+     */
+    public <T> T postJson(String path, Object requestBody, Duration timeout, JsonResponseParser<T> responseParser)
+            throws IOException, InterruptedException {
+        return execute(buildRequest(path, requestBody, timeout, "application/json"), path, timeout, responseParser);
+    }
+
+    /**
+     * 上传二进制请求体（如图像），请求体由 BodyPublisher 按块直接写入连接，不经过 JSON/base64 编码
+     * 长度已知时以 Content-Length 发送，未知（contentLength 为 -1）时使用分块传输编码
+     */
+    public <T> T postBinary(String path, HttpRequest.BodyPublisher body, String contentType, Duration timeout,
+                            JsonResponseParser<T> responseParser) throws IOException, InterruptedException {
+        return execute(newRequest(path, timeout, contentType, "application/json", body), path, timeout,
+            responseParser);
+    }
+
+    /**
+     * 非阻塞版本的 {@link #postBinary}
+     */
+    public <T> CompletableFuture<T> postBinaryAsync(String path, HttpRequest.BodyPublisher body, String contentType,
+                                                    Duration timeout, JsonResponseParser<T> responseParser) {
+        return executeAsync(newRequest(path, timeout, contentType, "application/json", body), path, timeout,
+            responseParser);
+    }
+
+    private <T> T execute(HttpRequest request, String path, Duration timeout, JsonResponseParser<T> responseParser)
+            throws IOException, InterruptedException {
+        Call call = acquire(request, path, timeout, false);
+
+        CallOutcome outcome = CallOutcome.IGNORED;
+        AIMetrics.Outcome result = AIMetrics.Outcome.ERROR;
+        long responseBytes = -1;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            call.headersReceived();
+            BodyDeadline deadline = new BodyDeadline(response.body(), call.remainingNanos());
+            try (CountingInputStream body = new CountingInputStream(response.body())) {
+                outcome = outcomeOf(response.statusCode());
+                checkStatus(path, response.statusCode());
+                T value;
+                try (JsonParser parser = jsonFactory.createParser(body)) {
+                    value = parse(parser, responseParser);
+                }
+                responseBytes = body.getCount();
+                result = AIMetrics.Outcome.SUCCESS;
+                return value;
+            } catch (IOException e) {
+                if (deadline.isExpired()) {
+                    outcome = CallOutcome.FAILURE;
+                    throw new HttpTimeoutException("AI服务 " + path + " 响应体未在 " + timeout.toMillis() + "ms 内读完");
+                }
+                throw e;
+            } finally {
+                deadline.finish();
+            }
+        } catch (InterruptedException e) {
+            result = AIMetrics.Outcome.CANCELLED;
+            throw e;
+        } catch (IOException e) {
+            // 连接失败、超时等
+            if (outcome == CallOutcome.IGNORED) {
+                outcome = CallOutcome.FAILURE;
+            }
+            throw e;
+        } finally {
+            call.finish(outcome, result, responseBytes);
+        }
+    }
+
+    /**
+     * 非阻塞版本的 {@link #postJson}，基于 HttpClient.sendAsync，调用线程不等待网络往返
+     * 限流、熔断或并发超限时返回的 future 以对应异常完成
+     * 限流、熔断或并发超限时返回已失败的 future
+     * 集群限流通过异步命令取令牌，策略为 WAIT 时也不阻塞调用线程，可以在 Redisson 的回调线程上调用
+     */
+    public <T> CompletableFuture<T> postJsonAsync(String path, Object requestBody, Duration timeout,
+                                                  Class<T> responseType) {
+        return postJsonAsync(path, requestBody, timeout, databind(responseType));
+    }
+
+    /**
+     * 非阻塞版本的 {@link #postJson(String, Object, Duration, JsonResponseParser)}
+     */
+    public <T> CompletableFuture<T> postJsonAsync(String path, Object requestBody, Duration timeout,
+                                                  JsonResponseParser<T> responseParser) {
+        HttpRequest request;
+        try {
+            request = buildRequest(path, requestBody, timeout, "application/json");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return executeAsync(request, path, timeout, responseParser);
+    }
+
+    private <T> CompletableFuture<T> executeAsync(HttpRequest request, String path, Duration timeout,
+                                                  JsonResponseParser<T> responseParser) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // 总时限：响应头之后响应体停滞时 HttpRequest.timeout 不起作用，到期同样中止 HTTP 交换
+        result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        admitAsync(result, request, path, timeout, false, call -> {
+            CompletableFuture<HttpResponse<byte[]>> exchange;
+            try {
+                exchange = httpClient.sendAsync(request, responseInfo -> {
+                    call.headersReceived();
+                    return HttpResponse.BodySubscribers.ofByteArray();
+                });
+            } catch (RuntimeException e) {
+                call.finish(CallOutcome.IGNORED, AIMetrics.Outcome.ERROR, -1);
+                result.completeExceptionally(e);
+                return;
+            }
+
+            exchange.whenComplete((response, error) -> {
+                CallOutcome outcome = CallOutcome.IGNORED;
+                AIMetrics.Outcome metricsOutcome = AIMetrics.Outcome.ERROR;
+                long responseBytes = -1;
+                try {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        // 调用方主动取消不算后端故障，超时引起的取消算
+                        if (cause instanceof CancellationException && result.isCancelled()) {
+                            metricsOutcome = AIMetrics.Outcome.CANCELLED;
+                        } else {
+                            outcome = CallOutcome.FAILURE;
+                        }
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+                    outcome = outcomeOf(response.statusCode());
+                    responseBytes = response.body().length;
+                    checkStatus(path, response.statusCode());
+                    try (JsonParser parser = jsonFactory.createParser(response.body())) {
+                        result.complete(parse(parser, responseParser));
+                    }
+                    metricsOutcome = AIMetrics.Outcome.SUCCESS;
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    call.finish(outcome, metricsOutcome, responseBytes);
+                }
+            });
+            // 取消和超时向下游传播到 HTTP 交换，交换结束时释放并发名额
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled() || error instanceof TimeoutException) {
+                    exchange.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * 流式响应（SSE）：响应体按行交给 lineSubscriber，由它的请求量控制读取速度（背压）
+     * timeout 只约束收到响应头之前的等待；之后两行之间超过 streamIdleTimeout 没有数据时中止请求，
+     * 返回的 future 以 HttpTimeoutException 完成。熔断和并发统计以首字节时间衡量快慢。
+     * 返回的 future 在整个响应体读完后完成；非 2xx 响应时 lineSubscriber 不会收到任何信号，
+     * 只有返回的 future 以异常完成。
+     */
+    public CompletableFuture<Void> postJsonStream(String path, Object requestBody, Duration timeout,
+                                                  Flow.Subscriber<String> lineSubscriber) {
+        HttpRequest request;
+        try {
+            request = buildRequest(path, requestBody, timeout, "text/event-stream");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        IdleTimeoutSubscriber watched = new IdleTimeoutSubscriber(lineSubscriber, config.getStreamIdleTimeout(),
+            result::completeExceptionally);
+        admitAsync(result, request, path, timeout, true, call -> {
+            HttpResponse.BodyHandler<Void> handler = responseInfo -> {
+                call.headersReceived();
+                int statusCode = responseInfo.statusCode();
+                if (statusCode < 200 || statusCode >= 300) {
+                    return HttpResponse.BodySubscribers.replacing(null);
+                }
+                return HttpResponse.BodySubscribers.fromLineSubscriber(
+                    watched, subscriber -> null, StandardCharsets.UTF_8, "\n");
+            };
+
+            CompletableFuture<HttpResponse<Void>> exchange;
+            try {
+                exchange = httpClient.sendAsync(request, handler);
+            } catch (RuntimeException e) {
+                call.finish(CallOutcome.IGNORED, AIMetrics.Outcome.ERROR, -1);
+                result.completeExceptionally(e);
+                return;
+            }
+
+            exchange.whenComplete((response, error) -> {
+                CallOutcome outcome = CallOutcome.IGNORED;
+                AIMetrics.Outcome metricsOutcome = AIMetrics.Outcome.ERROR;
+                try {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        // 空闲超时导致的取消说明后端卡住，按失败统计
+                        if (cause instanceof CancellationException && !watched.isTimedOut()) {
+                            metricsOutcome = AIMetrics.Outcome.CANCELLED;
+                        } else {
+                            outcome = CallOutcome.FAILURE;
+                        }
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+                    outcome = outcomeOf(response.statusCode());
+                    checkStatus(path, response.statusCode());
+                    result.complete(null);
+                    metricsOutcome = AIMetrics.Outcome.SUCCESS;
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    call.finish(outcome, metricsOutcome, -1);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled() || watched.isTimedOut()) {
+                    exchange.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+
+    private HttpRequest buildRequest(String path, Object requestBody, Duration timeout, String accept)
+            throws IOException {
+        // 按请求体类型缓存 ObjectWriter，直接序列化为 UTF-8 字节，不经过 String
+        ObjectWriter writer = writers.computeIfAbsent(requestBody.getClass(), objectMapper::writerFor);
+        byte[] payload = writer.writeValueAsBytes(requestBody);
+        return newRequest(path, timeout, "application/json; charset=utf-8", accept,
+            HttpRequest.BodyPublishers.ofByteArray(payload));
+    }
+
+    private HttpRequest newRequest(String path, Duration timeout, String contentType, String accept,
+                                   HttpRequest.BodyPublisher body) {
+        return HttpRequest.newBuilder(URI.create(config.getBaseUrl() + path))
+            .timeout(timeout)
+            .header("Content-Type", contentType)
+            .header("Accept", accept)
+            .POST(body)
+            .build();
+    }
+
+    private static <T> T parse(JsonParser parser, JsonResponseParser<T> responseParser) throws IOException {
+        if (parser.nextToken() == null) {
+            throw new IOException("AI服务返回了空响应");
+        }
+        return responseParser.parse(parser);
+    }
+
+    private <T> JsonResponseParser<T> databind(Class<T> responseType) {
+        return parser -> objectMapper.readValue(parser, responseType);
+    }
+
+    /**
+     * 依次通过集群限流、熔断器和并发限制，任一拒绝即快速失败
+     * 限流放在最前面：本地预取的令牌只需一次 CAS，且被熔断拒绝的请求本来也不会占用后端容量，
+     * 但为了让各节点的总请求数有上界，令牌在熔断或并发拒绝时不归还。
+     * @param streaming 流式响应以首字节时间而不是总耗时判断快慢
+     */
+    private Call acquire(HttpRequest request, String path, Duration timeout, boolean streaming)
+            throws AIServiceUnavailableException {
+        if (rateLimiter != null && !rateLimiter.acquire()) {
+            rejectOverBudget(path);
+        }
+        return admit(request, path, timeout, streaming);
+    }
+
+    /**
+     * 非阻塞版本的 {@link #acquire}：集群限流只使用 Redisson 的异步命令，
+     * 调用线程可以是 Redisson 的回调线程（如结果缓存查询 Redis 之后），WAIT 策略下也不阻塞。
+     * 通过后调用 start 发出请求；result 在此之前已完成（取消或超时）时直接归还名额，被拒绝时 result 以对应异常完成
+     */
+    private void admitAsync(CompletableFuture<?> result, HttpRequest request, String path, Duration timeout,
+                            boolean streaming, Consumer<Call> start) {
+        CompletableFuture<Boolean> budget = rateLimiter != null
+            ? rateLimiter.acquireAsync()
+            : CompletableFuture.completedFuture(true);
+        budget.whenComplete((acquired, error) -> {
+            Call call;
+            try {
+                if (error != null) {
+                    throw error;
+                }
+                if (!acquired) {
+                    rejectOverBudget(path);
+                }
+                call = admit(request, path, timeout, streaming);
+            } catch (Throwable e) {
+                result.completeExceptionally(unwrap(e));
+                return;
+            }
+            if (result.isDone()) {
+                call.finish(CallOutcome.IGNORED,
+                    result.isCancelled() ? AIMetrics.Outcome.CANCELLED : AIMetrics.Outcome.ERROR, -1);
+            } else {
+                start.accept(call);
+            }
+        });
+    }
+
+    private void rejectOverBudget(String path) throws AIServiceUnavailableException {
+        metrics.requestRejected(path, AIMetrics.RejectReason.RATE_LIMIT);
+        if (rateLimiter.getPolicy() == DistributedRateLimiter.OverBudgetPolicy.FAIL_FAST) {
+            throw new AIRateLimitExceededException("AI服务集群调用预算已用尽: " + path);
+        }
+        throw new AIServiceUnavailableException("AI服务集群调用预算已用尽，走降级: " + path);
+    }
+
+    /**
+     * 熔断器和并发限制
+     */
+    private Call admit(HttpRequest request, String path, Duration timeout, boolean streaming)
+            throws AIServiceUnavailableException {
+        long breakerPermit = circuitBreaker.tryAcquire();
+        if (breakerPermit == CircuitBreaker.REJECTED) {
+            metrics.requestRejected(path, AIMetrics.RejectReason.CIRCUIT_OPEN);
+            throw new AIServiceUnavailableException("AI服务熔断中，快速失败: " + path);
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            circuitBreaker.onIgnored(breakerPermit);
+            metrics.requestRejected(path, AIMetrics.RejectReason.CONCURRENCY_LIMIT);
+            throw new AIServiceUnavailableException("AI服务并发请求数已达上限: " + concurrencyLimiter.getLimit());
+        }
+        metrics.requestStarted(path);
+        long requestBytes = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L);
+        return new Call(path, timeout, streaming, requestBytes, breakerPermit);
+    }
+
+    /**
+     * 5xx 和 429 说明后端故障或过载；其他状态码说明后端仍能正常应答
+     */
+    private static CallOutcome outcomeOf(int statusCode) {
+        return statusCode >= 500 || statusCode == 429 ? CallOutcome.FAILURE : CallOutcome.SUCCESS;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * 一次已发出的调用：记录时间点，结束时更新熔断器、并发限制和指标
+     */
+    private final class Call {
+        private final String path;
+        private final Duration timeout;
+        private final boolean streaming;
+        private final long requestBytes;
+        private final long breakerPermit;
+        private final long start = System.nanoTime();
+        private volatile long ttfbNanos = -1;
+
+        Call(String path, Duration timeout, boolean streaming, long requestBytes, long breakerPermit) {
+            this.path = path;
+            this.timeout = timeout;
+            this.streaming = streaming;
+            this.requestBytes = requestBytes;
+            this.breakerPermit = breakerPermit;
+        }
+
+        void headersReceived() {
+            ttfbNanos = System.nanoTime() - start;
+        }
+
+        long remainingNanos() {
+            return timeout.toNanos() - (System.nanoTime() - start);
+        }
+
+        void finish(CallOutcome outcome, AIMetrics.Outcome metricsOutcome, long responseBytes) {
+            long totalNanos = System.nanoTime() - start;
+            long ttfb = ttfbNanos;
+            record(outcome, breakerPermit, streaming && ttfb >= 0 ? ttfb : totalNanos, timeout);
+            metrics.requestFinished(path, metricsOutcome, ttfb, totalNanos, requestBytes, responseBytes);
+        }
+    }
+
+    /**
+     * 流式响应的空闲超时：每收到一行重新计时，有未满足的请求量却超过 idleTimeout 没收到新行时
+     * 取消订阅并回调 onTimeout；下游没有请求量（背压暂停）时不计时。
+     * 不为每一行重新调度定时任务，到期检查时发现期间有新数据就按剩余时间再调度一次
+     */
+    private static final class IdleTimeoutSubscriber implements Flow.Subscriber<String> {
+        private final Flow.Subscriber<String> downstream;
+        private final long idleNanos;
+        private final Consumer<Throwable> onTimeout;
+        private final AtomicLong outstanding = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+        private volatile long lastActivity;
+        private volatile boolean done;
+        private volatile boolean timedOut;
+
+        IdleTimeoutSubscriber(Flow.Subscriber<String> downstream, Duration idleTimeout,
+                              Consumer<Throwable> onTimeout) {
+            this.downstream = downstream;
+            this.idleNanos = idleTimeout.toNanos();
+            this.onTimeout = onTimeout;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            this.lastActivity = System.nanoTime();
+            downstream.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    // 从无请求量恢复时重新计时，暂停期间不算空闲
+                    if (n > 0 && outstanding.getAndAccumulate(n,
+                            (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add) == 0) {
+                        lastActivity = System.nanoTime();
+                    }
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    done = true;
+                    subscription.cancel();
+                }
+            });
+            schedule(idleNanos);
+        }
+
+        @Override
+        public void onNext(String line) {
+            lastActivity = System.nanoTime();
+            outstanding.decrementAndGet();
+            downstream.onNext(line);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done = true;
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            downstream.onComplete();
+        }
+
+        boolean isTimedOut() {
+            return timedOut;
+        }
+
+        private void schedule(long delayNanos) {
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(this::check);
+        }
+
+        private void check() {
+            if (done) {
+                return;
+            }
+            long remaining = lastActivity + idleNanos - System.nanoTime();
+            if (outstanding.get() <= 0 || remaining > 0) {
+                schedule(remaining > 0 ? remaining : idleNanos);
+                return;
+            }
+            done = true;
+            timedOut = true;
+            subscription.cancel();
+            onTimeout.accept(new HttpTimeoutException(
+                "流式响应超过 " + Duration.ofNanos(idleNanos).toMillis() + "ms 没有新数据"));
+        }
+    }
+
+    /**
+     * 同步调用读取响应体的时限：到期时关闭响应流，阻塞在读取上的线程随即返回，由调用方转换为超时
+     */
+    private static final class BodyDeadline implements Runnable {
+        private final InputStream body;
+        private volatile boolean finished;
+        private volatile boolean expired;
+
+        BodyDeadline(InputStream body, long remainingNanos) {
+            this.body = body;
+            CompletableFuture.delayedExecutor(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS).execute(this);
+        }
+
+        @Override
+        public void run() {
+            if (finished) {
+                return;
+            }
+            expired = true;
+            try {
+                body.close();
+            } catch (IOException e) {
+                // 关闭只为唤醒读取线程，失败无需处理
+            }
+        }
+
+        void finish() {
+            finished = true;
+        }
+
+        boolean isExpired() {
+            return expired;
+        }
+    }
+
+    /**
+     * 统计已读取的响应体字节数
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private void record(CallOutcome outcome, long breakerPermit, long elapsedNanos, Duration timeout) {
+        if (outcome == CallOutcome.SUCCESS) {
+            circuitBreaker.onSuccess(breakerPermit);
+            if (elapsedNanos > timeout.toNanos() * SLOW_CALL_RATIO) {
+                concurrencyLimiter.onDropped();
+            } else {
+                concurrencyLimiter.onSuccess();
+            }
+        } else if (outcome == CallOutcome.FAILURE) {
+            circuitBreaker.onFailure(breakerPermit);
+            concurrencyLimiter.onDropped();
+        } else {
+            circuitBreaker.onIgnored(breakerPermit);
+            concurrencyLimiter.onIgnored();
+        }
+    }
+
+    private static void checkStatus(String path, int statusCode) throws IOException {
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new IOException("AI服务 " + path + " 返回 HTTP " + statusCode);
+        }
+    }
+
+    public AIServiceConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 当前进行中的请求数
+     */
+    public int getInFlightRequests() {
+        return concurrencyLimiter.getInFlight();
+    }
+
+    /**
+     * 熔断器状态、失败率、拒绝次数
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 当前自适应并发上限、下调次数、拒绝次数
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 集群限流器，未配置限流时为 null
+     */
+    public DistributedRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public AIMetrics getMetrics() {
+        return metrics;
+    }
+}
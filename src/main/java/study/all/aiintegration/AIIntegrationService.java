@@ -1,25 +1,78 @@
 package study.all.aiintegration;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import study.all.redisson.config.RedissonConfig;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * AI服务集成服务类
  * 演示如何在Java应用中集成AI能力
  */
-public class AIIntegrationService {
+public class AIIntegrationService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AIIntegrationService.class);
+
+    private static final String IMAGE_CONTENT_TYPE = "application/octet-stream";
 
     private final ObjectMapper objectMapper;
+    private final ObjectWriter chatReplyWriter;
+    private final AIServiceConfig config;
+    private final AIHttpClient httpClient;
+    private final AIMetrics metrics;
+    private final ObjectName statusObjectName;
+    private final AIResultCache<String> classificationCache;
+    private final AIResultCache<ChatResponse> chatCache;
+    private volatile ClassificationBatcher classificationBatcher;
+    private final Object batcherLock = new Object();
 
     public AIIntegrationService() {
+        this(AIServiceConfig.defaults());
+    }
+
+    /**
+     * 使用指定配置创建服务（如指向本地桩服务器的地址）
+     */
+    public AIIntegrationService(AIServiceConfig config) {
         this.objectMapper = new ObjectMapper();
+        this.chatReplyWriter = objectMapper.writerFor(AIApiModels.ChatReply.class);
+        this.config = config;
+        this.httpClient = new AIHttpClient(config, objectMapper);
+        this.metrics = config.getMetrics();
+        this.statusObjectName = registerMBeans(config.getJmxName());
+        
+        // 结果缓存：可选使用 Redis 作为二级缓存，客户端在第一次用到时才创建，Redis 不可用时只用本地缓存
+        Supplier<RedissonClient> redisClient = config.isRedisResultCache() ? RedissonConfig::getClient : null;
+        if (config.getResultCacheMaxSize() > 0) {
+            this.classificationCache = new AIResultCache<>("classify", config.getResultCacheMaxSize(),
+                config.getResultCacheTtl(), redisClient, v -> v, v -> v);
+            this.chatCache = new AIResultCache<>("chat", config.getResultCacheMaxSize(),
+                config.getResultCacheTtl(), redisClient, this::encodeChatResponse, this::decodeChatResponse);
+        } else {
+            this.classificationCache = null;
+            this.chatCache = null;
+        }
     }
 
     /**
@@ -27,107 +80,421 @@ public class AIIntegrationService {
      */
     public String classifyText(String text) {
         try {
-            // 构造请求
-            Map<String, String> requestBody = new HashMap<>();
-            requestBody.put("text", text);
-            
-            // 调用Python Flask API
-            String pythonApiUrl = "http://localhost:5000/api/classify";
-            String jsonResponse = sendPostRequest(pythonApiUrl, objectMapper.writeValueAsString(requestBody));
-            Map<String, Object> response = objectMapper.readValue(jsonResponse, Map.class);
-            
-            return (String) response.get("classification");
+            // 相同文本优先命中缓存，并发的相同请求只发送一次
+            return classificationCache != null
+                ? classificationCache.get(text, () -> requestClassification(text))
+                : requestClassification(text);
         } catch (Exception e) {
+            restoreInterrupt(e);
+            rethrowIfRateLimited(e);
             // 降级处理
+            metrics.fallbackUsed("/api/classify");
             return fallbackClassification(text);
         }
     }
 
+    private String requestClassification(String text) throws Exception {
+        // 调用Python Flask API
+        return httpClient.postJson("/api/classify", new AIApiModels.ClassifyRequest(text),
+            config.getClassifyTimeout(), AIApiModels.ClassifyResponse::parse).getClassification();
+    }
+
+    /**
+     * 非阻塞文本分类，失败时以降级结果完成
+     * 取消返回的 future 会中止底层 HTTP 请求；相同文本的并发调用共享一次请求，全部取消后才中止
+     */
+    public CompletableFuture<String> classifyTextAsync(String text) {
+        CompletableFuture<String> source = classificationCache != null
+            ? classificationCache.getAsync(text, () -> requestClassificationAsync(text))
+            : requestClassificationAsync(text);
+        return withFallback(source, e -> {
+            metrics.fallbackUsed("/api/classify");
+            return fallbackClassification(text);
+        });
+    }
+
+    private CompletableFuture<String> requestClassificationAsync(String text) {
+        CompletableFuture<AIApiModels.ClassifyResponse> exchange = httpClient.postJsonAsync("/api/classify",
+            new AIApiModels.ClassifyRequest(text), config.getClassifyTimeout(), AIApiModels.ClassifyResponse::parse);
+        return propagateCancel(exchange.thenApply(AIApiModels.ClassifyResponse::getClassification), exchange);
+    }
+
     /**
-     * 降级分类方法
+     * 响应式文本分类：按输入顺序发出结果，同时进行中的请求不超过 maxConcurrency
+     */
+    public Flow.Publisher<String> classifyTextPublisher(Flow.Publisher<String> texts, int maxConcurrency) {
+        return new AsyncMappingPublisher<>(texts, this::classifyTextAsync, maxConcurrency);
+    }
+
+    /**
+     * 合并式文本分类
+     * 高并发调用在短时间窗口内合并为一次批量请求，批量失败时逐条降级
+     */
+    public CompletableFuture<String> classifyTextBatched(String text) {
+        return getClassificationBatcher().classify(text);
+    }
+
+    private ClassificationBatcher getClassificationBatcher() {
+        if (classificationBatcher == null) {
+            synchronized (batcherLock) {
+                if (classificationBatcher == null) {
+                    classificationBatcher = new ClassificationBatcher(
+                        httpClient, text -> {
+                            metrics.fallbackUsed("/api/classify/batch");
+                            return fallbackClassification(text);
+                        },
+                        config.getClassifyBatchSize(),
+                        config.getClassifyBatchLingerMicros(),
+                        config.getMaxConcurrentBatches());
+                }
+            }
+        }
+        return classificationBatcher;
+    }
+
+    /**
+     * 降级分类方法，交给配置的本地分类器；分类器自身出错时返回 neutral，降级路径不再抛异常
      */
     private String fallbackClassification(String text) {
-        // 简单的基于关键词的分类
-        if (text.contains("好") || text.contains("棒") || text.contains("喜欢")) {
-            return "positive";
-        } else if (text.contains("坏") || text.contains("差") || text.contains("讨厌")) {
-            return "negative";
+        try {
+            return config.getFallbackClassifier().classify(text);
+        } catch (RuntimeException e) {
+            logger.debug("本地降级分类失败", e);
+            return "neutral";
         }
-        return "neutral";
     }
 
     /**
      * 图像处理服务调用
      */
     public ProcessedImageResult processImage(byte[] imageData) {
+        return uploadImage(() -> HttpRequest.BodyPublishers.ofByteArray(imageData));
+    }
+
+    /**
+     * 上传 buffer 中 position 到 limit 的内容；直接缓冲区或内存映射的数据不会被复制到堆上
+     */
+    public ProcessedImageResult processImage(ByteBuffer imageData) {
+        return uploadImage(() -> ImageBodyPublishers.ofByteBuffer(imageData));
+    }
+
+    /**
+     * 上传图像文件，大文件通过内存映射按块发送
+     */
+    public ProcessedImageResult processImage(Path imageFile) {
+        return uploadImage(() -> ImageBodyPublishers.ofPath(imageFile));
+    }
+
+    /**
+     * 上传长度未知的图像流，使用分块传输编码，流由调用方负责打开
+     */
+    public ProcessedImageResult processImage(InputStream imageStream) {
+        return uploadImage(() -> ImageBodyPublishers.ofInputStream(imageStream));
+    }
+
+    private ProcessedImageResult uploadImage(ImageBodySource source) {
+        long start = System.nanoTime();
         try {
-            // 这里应该调用实际的图像处理服务
-            // 示例返回模拟结果
-            return ProcessedImageResult.builder()
-                .objectsDetected(5)
-                .processingTime(120)
-                .success(true)
-                .build();
+            AIApiModels.ImageResponse response = httpClient.postBinary("/api/image/process", source.open(),
+                IMAGE_CONTENT_TYPE, config.getImageTimeout(), AIApiModels.ImageResponse::parse);
+            return toImageResult(response, start);
         } catch (Exception e) {
-            return ProcessedImageResult.builder()
-                .success(false)
-                .errorMessage(e.getMessage())
-                .build();
+            restoreInterrupt(e);
+            return failedImageResult(e, start);
         }
     }
 
+    /**
+     * 非阻塞图像处理，processingTime 为实际往返耗时
+     */
+    public CompletableFuture<ProcessedImageResult> processImageAsync(byte[] imageData) {
+        long start = System.nanoTime();
+        CompletableFuture<AIApiModels.ImageResponse> exchange = httpClient.postBinaryAsync("/api/image/process",
+            HttpRequest.BodyPublishers.ofByteArray(imageData), IMAGE_CONTENT_TYPE, config.getImageTimeout(),
+            AIApiModels.ImageResponse::parse);
+        return propagateCancel(exchange.handle((response, error) -> error == null
+            ? toImageResult(response, start)
+            : failedImageResult(error, start)), exchange);
+    }
+
+    private static ProcessedImageResult toImageResult(AIApiModels.ImageResponse response, long start) {
+        return ProcessedImageResult.builder()
+            .objectsDetected(response.getObjectsDetected())
+            .processingTime(elapsedMillis(start))
+            .success(response.isSuccess())
+            .build();
+    }
+
+    private ProcessedImageResult failedImageResult(Throwable error, long start) {
+        rethrowIfRateLimited(error);
+        metrics.fallbackUsed("/api/image/process");
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return ProcessedImageResult.builder()
+            .success(false)
+            .processingTime(elapsedMillis(start))
+            .errorMessage(cause.getMessage() != null ? cause.getMessage() : cause.toString())
+            .build();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 打开请求体时可能因文件读取失败抛出 IOException
+     */
+    @FunctionalInterface
+    private interface ImageBodySource {
+        HttpRequest.BodyPublisher open() throws IOException;
+    }
+
+    /**
+     * 响应式图像处理，语义同 {@link #classifyTextPublisher}
+     */
+    public Flow.Publisher<ProcessedImageResult> processImagePublisher(Flow.Publisher<byte[]> images,
+                                                                     int maxConcurrency) {
+        return new AsyncMappingPublisher<>(images, this::processImageAsync, maxConcurrency);
+    }
+
     /**
      * 聊天机器人服务
      */
     public ChatResponse chatWithBot(String userInput) {
         try {
-            Map<String, String> requestBody = new HashMap<>();
-            requestBody.put("message", userInput);
-            
-            String chatApiUrl = "http://localhost:5000/api/chat";
-            String jsonResponse = sendPostRequest(chatApiUrl, objectMapper.writeValueAsString(requestBody));
-            Map<String, Object> response = objectMapper.readValue(jsonResponse, Map.class);
-            
-            return ChatResponse.builder()
-                .response((String) response.get("reply"))
-                .confidence(((Number) response.get("confidence")).doubleValue())
-                .build();
+            return chatCache != null
+                ? chatCache.get(userInput, () -> requestChat(userInput))
+                : requestChat(userInput);
         } catch (Exception e) {
+            restoreInterrupt(e);
+            rethrowIfRateLimited(e);
             // 返回默认回复
+            metrics.fallbackUsed("/api/chat");
+            return fallbackChatResponse();
+        }
+    }
+
+    /**
+     * 非阻塞聊天，失败时以默认回复完成
+     * 取消返回的 future 会中止底层 HTTP 请求；相同输入的并发调用共享一次请求，全部取消后才中止
+     */
+    public CompletableFuture<ChatResponse> chatWithBotAsync(String userInput) {
+        CompletableFuture<ChatResponse> source = chatCache != null
+            ? chatCache.getAsync(userInput, () -> requestChatAsync(userInput))
+            : requestChatAsync(userInput);
+        return withFallback(source, e -> {
+            metrics.fallbackUsed("/api/chat");
+            return fallbackChatResponse();
+        });
+    }
+
+    private CompletableFuture<ChatResponse> requestChatAsync(String userInput) {
+        return httpClient.postJsonAsync("/api/chat", new AIApiModels.ChatRequest(userInput),
+            config.getChatTimeout(), AIApiModels::parseChatResponse);
+    }
+
+    /**
+     * 响应式聊天，语义同 {@link #classifyTextPublisher}
+     */
+    public Flow.Publisher<ChatResponse> chatWithBotPublisher(Flow.Publisher<String> inputs, int maxConcurrency) {
+        return new AsyncMappingPublisher<>(inputs, this::chatWithBotAsync, maxConcurrency);
+    }
+
+    /**
+     * 流式聊天：token 生成后即通过 onToken 回调送达，不必等待完整回复
+     * 返回的 future 在服务端 done 事件后以完整回复和置信度完成。
+     * 失败时：尚未收到任何 token 则把默认回复作为一个 token 送出并返回默认回复；
+     * 已收到部分 token 则返回已收到的部分内容，置信度为 0。
+     */
+    public CompletableFuture<ChatResponse> chatWithBotStreaming(String userInput, Consumer<String> onToken) {
+        SseChatParser parser = new SseChatParser(objectMapper, onToken, null);
+        CompletableFuture<Void> exchange = httpClient.postJsonStream(
+            "/api/chat/stream", new AIApiModels.ChatRequest(userInput), config.getChatTimeout(), parser);
+        exchange.whenComplete((value, error) -> {
+            if (error != null) {
+                parser.fail(error);
+            }
+        });
+
+        CompletableFuture<ChatResponse> result = parser.result().handle((response, error) -> {
+            if (error == null) {
+                return response;
+            }
+            rethrowIfRateLimited(error);
+            metrics.fallbackUsed("/api/chat/stream");
+            if (parser.getTokenCount() == 0) {
+                ChatResponse fallback = fallbackChatResponse();
+                onToken.accept(fallback.getResponse());
+                return fallback;
+            }
             return ChatResponse.builder()
-                .response("抱歉，我现在无法回答您的问题。")
+                .response(parser.getPartialReply())
                 .confidence(0.0)
                 .build();
+        });
+        return propagateCancel(result, exchange);
+    }
+
+    /**
+     * 流式聊天的响应式版本：按下游请求量逐个发出 token，下游不请求时暂停读取响应体
+     * 失败时 onError（不降级），需要最终回复和置信度时使用 {@link #chatWithBotStreaming}
+     */
+    public Flow.Publisher<String> chatTokenPublisher(String userInput) {
+        return new ChatTokenPublisher(httpClient, objectMapper, "/api/chat/stream",
+            new AIApiModels.ChatRequest(userInput), config.getChatTimeout());
+    }
+
+    private ChatResponse fallbackChatResponse() {
+        return ChatResponse.builder()
+            .response("抱歉，我现在无法回答您的问题。")
+            .confidence(0.0)
+            .build();
+    }
+
+    /**
+     * 失败时用降级结果完成；取消返回的 future 会同时取消 source
+     */
+    private static <T> CompletableFuture<T> withFallback(CompletableFuture<T> source,
+                                                         Function<Throwable, T> fallback) {
+        return propagateCancel(source.handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            rethrowIfRateLimited(error);
+            return fallback.apply(error);
+        }), source);
+    }
+
+    /**
+     * 集群限流策略为 FAIL_FAST 时预算用尽不降级，把 AIRateLimitExceededException 交给调用方
+     */
+    private static void rethrowIfRateLimited(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AIRateLimitExceededException) {
+            throw (AIRateLimitExceededException) cause;
         }
     }
 
     /**
-     * 发送HTTP POST请求
+     * CompletableFuture 的派生阶段被取消时不会影响上游，这里把取消传回 source
      */
-    private String sendPostRequest(String urlString, String jsonPayload) throws Exception {
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "application/json; utf-8");
-        connection.setRequestProperty("Accept", "application/json");
-        connection.setDoOutput(true);
-        
-        try (OutputStream os = connection.getOutputStream()) {
-            byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-            os.write(input, 0, input.length);
+    private static <T> CompletableFuture<T> propagateCancel(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((value, error) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    private ChatResponse requestChat(String userInput) throws Exception {
+        return httpClient.postJson("/api/chat", new AIApiModels.ChatRequest(userInput),
+            config.getChatTimeout(), AIApiModels::parseChatResponse);
+    }
+
+    private String encodeChatResponse(ChatResponse chatResponse) {
+        try {
+            return chatReplyWriter.writeValueAsString(new AIApiModels.ChatReply(chatResponse));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        StringBuilder response = new StringBuilder();
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-            String responseLine;
-            while ((responseLine = br.readLine()) != null) {
-                response.append(responseLine.trim());
+    }
+
+    private ChatResponse decodeChatResponse(String encoded) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(encoded)) {
+            parser.nextToken();
+            return AIApiModels.parseChatResponse(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 熔断器状态，后端持续失败时为 OPEN，此期间所有调用直接降级
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return httpClient.getCircuitBreaker().getState();
+    }
+
+    /**
+     * 当前自适应并发上限
+     */
+    public int getConcurrencyLimit() {
+        return httpClient.getConcurrencyLimiter().getLimit();
+    }
+
+    /**
+     * 集群限流器，未配置限流时为 null
+     */
+    public DistributedRateLimiter getRateLimiter() {
+        return httpClient.getRateLimiter();
+    }
+
+    public AIHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * 释放后台线程等资源
+     */
+    @Override
+    public void close() {
+        synchronized (batcherLock) {
+            if (classificationBatcher != null) {
+                classificationBatcher.close();
+                classificationBatcher = null;
             }
         }
-        
-        return response.toString();
+        unregisterMBeans();
+    }
+
+    /**
+     * 注册服务状态 MBean，默认指标实现的各接口 MBean 也一并注册
+     */
+    private ObjectName registerMBeans(String jmxName) {
+        if (jmxName == null) {
+            return null;
+        }
+        if (metrics instanceof DefaultAIMetrics) {
+            ((DefaultAIMetrics) metrics).registerMBeans(jmxName);
+        }
+        try {
+            ObjectName objectName = new ObjectName(DefaultAIMetrics.JMX_DOMAIN + ":type=AIService,name="
+                + ObjectName.quote(jmxName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new AIServiceStatus(httpClient), objectName);
+            return objectName;
+        } catch (JMException e) {
+            logger.warn("注册 AI 服务状态 MBean 失败: {}", jmxName, e);
+            return null;
+        }
+    }
+
+    private void unregisterMBeans() {
+        if (metrics instanceof DefaultAIMetrics) {
+            ((DefaultAIMetrics) metrics).unregisterMBeans();
+        }
+        if (statusObjectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(statusObjectName);
+            } catch (JMException e) {
+                logger.debug("注销 AI 服务状态 MBean 失败: {}", statusObjectName, e);
+            }
+        }
+    }
+
+    /**
+     * 调用指标，默认实现为 {@link DefaultAIMetrics}
+     */
+    public AIMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 降级前保留线程的中断状态
+     */
+    private static void restoreInterrupt(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
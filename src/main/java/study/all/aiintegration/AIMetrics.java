@@ -0,0 +1,76 @@
+package study.all.aiintegration;
+
+/**
+ * AI服务调用的指标采集接口
+ * 由 AIHttpClient 和 AIIntegrationService 在请求路径上回调，实现必须线程安全且足够轻量；
+ * 默认实现为 {@link DefaultAIMetrics}，可通过 {@link AIServiceConfig.Builder#metrics} 替换为
+ * 对接其他监控系统的实现，或使用 {@link #noop()} 关闭采集。
+ *
+ * java.net.http.HttpClient 不暴露建连耗时，首字节时间（TTFB，收到响应头的时刻）已包含建连和排队。
+ */
+public interface AIMetrics {
+
+    /**
+     * 请求结束方式
+     */
+    enum Outcome {
+        SUCCESS, ERROR, CANCELLED
+    }
+
+    /**
+     * 请求未发出即被拒绝的原因
+     */
+    enum RejectReason {
+        CIRCUIT_OPEN, CONCURRENCY_LIMIT, RATE_LIMIT
+    }
+
+    /**
+     * 请求通过限流、熔断和并发检查，即将发出
+     */
+    void requestStarted(String endpoint);
+
+    /**
+     * 请求结束
+     * @param ttfbNanos     发出到收到响应头的耗时，未收到响应时为 -1
+     * @param totalNanos    发出到响应体读完（或失败）的耗时
+     * @param requestBytes  请求体字节数，未知时为 -1
+     * @param responseBytes 响应体字节数，未知时为 -1
+     */
+    void requestFinished(String endpoint, Outcome outcome, long ttfbNanos, long totalNanos,
+                         long requestBytes, long responseBytes);
+
+    void requestRejected(String endpoint, RejectReason reason);
+
+    /**
+     * 服务层因远程调用失败而返回了降级结果
+     */
+    void fallbackUsed(String endpoint);
+
+    static AIMetrics noop() {
+        return NoopAIMetrics.INSTANCE;
+    }
+
+    final class NoopAIMetrics implements AIMetrics {
+        private static final NoopAIMetrics INSTANCE = new NoopAIMetrics();
+
+        private NoopAIMetrics() {
+        }
+
+        @Override
+        public void requestStarted(String endpoint) {
+        }
+
+        @Override
+        public void requestFinished(String endpoint, Outcome outcome, long ttfbNanos, long totalNanos,
+                                    long requestBytes, long responseBytes) {
+        }
+
+        @Override
+        public void requestRejected(String endpoint, RejectReason reason) {
+        }
+
+        @Override
+        public void fallbackUsed(String endpoint) {
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package study.all.aiintegration;
+
+/**
+ * 集群限流预算用尽且策略为 FAIL_FAST 时抛给调用方，请求没有发往后端，也不会走降级逻辑
+ */
+public class AIRateLimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public AIRateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,376 @@
+package study.all.aiintegration;
+
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import study.all.redisson.cache.LocalCache;
+import study.all.redisson.cache.NearCacheOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * AI推理结果缓存
+ * 以规范化输入的哈希为键，本地有界缓存（TTL + 容量淘汰）在前，可选的 Redis 二级缓存在后；
+ * 同一键的并发请求只会触发一次远程推理（single-flight），其余调用共享结果。
+ * 只缓存成功的远程结果，降级结果不会进入缓存。
+ */
+public class AIResultCache<V> {
+    private static final Logger logger = LoggerFactory.getLogger(AIResultCache.class);
+
+    // Redis 不可用（创建客户端失败、读取失败或超时）后，这段时间内只用本地缓存
+    private static final long REDIS_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // 单次读取 Redis 的时限，远小于 Redisson 默认的超时加重试，超时按未命中处理
+    private static final long REDIS_READ_TIMEOUT_MILLIS = 200;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final String namespace;
+    private final LocalCache<String, V> localCache;
+    private final ConcurrentHashMap<String, Load<V>> inFlight = new ConcurrentHashMap<>();
+    private final Supplier<RedissonClient> redisClientSupplier;
+    private volatile RedissonClient redisClient;
+    private volatile long redisSuspendedUntilNanos;
+    private final Duration ttl;
+    private final Function<V, String> encoder;
+    private final Function<String, V> decoder;
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * 仅使用本地缓存
+     */
+    public AIResultCache(String namespace, int maxSize, Duration ttl) {
+        this(namespace, maxSize, ttl, (Supplier<RedissonClient>) null, null, null);
+    }
+
+    /**
+     * @param namespace   缓存命名空间，区分不同接口的结果
+     * @param maxSize     本地缓存容量
+     * @param ttl         本地和 Redis 中结果的存活时间
+     * @param redisClient Redis 二级缓存客户端，为 null 时不启用
+     * @param encoder     结果写入 Redis 时的字符串编码
+     * @param decoder     从 Redis 读取时的解码
+     */
+    public AIResultCache(String namespace, int maxSize, Duration ttl, RedissonClient redisClient,
+                         Function<V, String> encoder, Function<String, V> decoder) {
+        this(namespace, maxSize, ttl, redisClient == null ? null : () -> redisClient, encoder, decoder);
+    }
+
+    /**
+     * Redis 客户端在第一次访问二级缓存时才创建；创建失败（Redis 不可用）时只用本地缓存，稍后再重试
+     * @param redisClientSupplier Redis 客户端的获取方式，为 null 时不启用二级缓存
+     */
+    public AIResultCache(String namespace, int maxSize, Duration ttl, Supplier<RedissonClient> redisClientSupplier,
+                         Function<V, String> encoder, Function<String, V> decoder) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("缓存存活时间必须为正");
+        }
+        this.namespace = namespace;
+        this.localCache = new LocalCache<>(NearCacheOptions.builder()
+            .maxSize(maxSize)
+            .ttl(ttl.toMillis(), TimeUnit.MILLISECONDS)
+            .evictionPolicy(NearCacheOptions.EvictionPolicy.LRU)
+            .build());
+        this.redisClientSupplier = redisClientSupplier;
+        this.redisSuspendedUntilNanos = System.nanoTime();
+        this.ttl = ttl;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载
+     * @param input  原始输入文本
+     * @param loader 远程推理，抛出异常表示失败（结果不缓存，并发等待者收到同一异常）
+     */
+    public V get(String input, Callable<V> loader) throws Exception {
+        String key = keyOf(input);
+        V cached = localCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Load<V> load = new Load<>();
+        CompletableFuture<V> mine = load.result;
+        Load<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            deduplicated.increment();
+            // 同步等待者不会取消，计入等待者后异步调用方全部取消也不会中止这次加载
+            existing.waiters.incrementAndGet();
+            return await(existing.result);
+        }
+
+        try {
+            V value = loadFromRedis(key);
+            if (value == null) {
+                loads.increment();
+                value = loader.call();
+                if (value != null) {
+                    storeToRedis(key, value);
+                }
+            }
+            if (value != null) {
+                localCache.put(key, value);
+            }
+            mine.complete(value);
+            return value;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * 异步读取缓存，未命中时调用 loader 发起异步加载，不阻塞调用线程
+     * 返回的是共享加载结果的副本：单个调用方取消只影响自己；所有等待者都取消后才取消 loader 返回的 future
+     * （由 loader 负责把取消传到底层请求），同时移出进行中的加载，后来的调用会重新加载
+     */
+    public CompletableFuture<V> getAsync(String input, Supplier<CompletableFuture<V>> loader) {
+        String key = keyOf(input);
+        V cached = localCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        Load<V> load = new Load<>();
+        CompletableFuture<V> mine = load.result;
+        Load<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            deduplicated.increment();
+            return waiter(key, existing);
+        }
+        CompletableFuture<V> first = waiter(key, load);
+
+        loadFromRedisAsync(key)
+            .thenCompose(value -> {
+                if (value != null) {
+                    return CompletableFuture.completedFuture(value);
+                }
+                if (load.cancelled) {
+                    throw new CancellationException("所有等待者都已取消");
+                }
+                loads.increment();
+                CompletableFuture<V> pending = loader.get();
+                load.pending = pending;
+                // 与 cancel 并发：两边都是先写自己的标记再读对方的，至少一边能看到并取消
+                if (load.cancelled) {
+                    pending.cancel(true);
+                }
+                return pending.thenApply(loaded -> {
+                    if (loaded != null) {
+                        storeToRedis(key, loaded);
+                    }
+                    return loaded;
+                });
+            })
+            .whenComplete((value, error) -> {
+                if (error == null && value != null) {
+                    localCache.put(key, value);
+                }
+                inFlight.remove(key, load);
+                if (error != null) {
+                    mine.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+                } else {
+                    mine.complete(value);
+                }
+            });
+        return first;
+    }
+
+    /**
+     * 为一个等待者生成共享结果的副本，副本被取消时减少等待者计数
+     */
+    private CompletableFuture<V> waiter(String key, Load<V> load) {
+        load.waiters.incrementAndGet();
+        CompletableFuture<V> copy = load.result.copy();
+        copy.whenComplete((value, error) -> {
+            if (copy.isCancelled() && load.waiters.decrementAndGet() == 0 && !load.result.isDone()) {
+                inFlight.remove(key, load);
+                load.cancelled = true;
+                CompletableFuture<?> pending = load.pending;
+                if (pending != null) {
+                    pending.cancel(true);
+                }
+            }
+        });
+        return copy;
+    }
+
+    private CompletableFuture<V> loadFromRedisAsync(String key) {
+        RedissonClient client = redisClient();
+        if (client == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            RBucket<String> bucket = client.getBucket(key);
+            return bucket.getAsync().toCompletableFuture().copy()
+                .orTimeout(REDIS_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .handle((encoded, error) -> {
+                    if (error != null) {
+                        suspendRedis(error);
+                        return null;
+                    }
+                    if (encoded == null) {
+                        return null;
+                    }
+                    try {
+                        V value = decoder.apply(encoded);
+                        redisHits.increment();
+                        return value;
+                    } catch (Exception e) {
+                        logger.debug("解码 Redis 缓存失败: {}", key, e);
+                        return null;
+                    }
+                });
+        } catch (Exception e) {
+            logger.debug("读取 Redis 缓存失败: {}", key, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private V loadFromRedis(String key) {
+        RedissonClient client = redisClient();
+        if (client == null) {
+            return null;
+        }
+        String encoded;
+        try {
+            RBucket<String> bucket = client.getBucket(key);
+            encoded = bucket.getAsync().get(REDIS_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            // Redis 不可用或响应慢时退化为只用本地缓存，不让每次未命中都等待 Redisson 的超时和重试
+            suspendRedis(e);
+            return null;
+        }
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            V value = decoder.apply(encoded);
+            redisHits.increment();
+            return value;
+        } catch (RuntimeException e) {
+            logger.debug("解码 Redis 缓存失败: {}", key, e);
+            return null;
+        }
+    }
+
+    private void storeToRedis(String key, V value) {
+        RedissonClient client = redisClient();
+        if (client == null) {
+            return;
+        }
+        try {
+            RBucket<String> bucket = client.getBucket(key);
+            bucket.setAsync(encoder.apply(value), ttl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.debug("写入 Redis 缓存失败: {}", key, e);
+        }
+    }
+
+    /**
+     * 一次进行中的加载：共享结果、异步等待者数量和 loader 返回的 future
+     */
+    private static final class Load<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+        volatile CompletableFuture<?> pending;
+        volatile boolean cancelled;
+    }
+
+    /**
+     * 获取 Redis 客户端；创建失败或最近一次读取失败后 30 秒内返回 null，期间只用本地缓存
+     */
+    private RedissonClient redisClient() {
+        if (redisClientSupplier == null || System.nanoTime() - redisSuspendedUntilNanos < 0) {
+            return null;
+        }
+        RedissonClient client = redisClient;
+        if (client != null) {
+            return client;
+        }
+        synchronized (this) {
+            if (redisClient == null && System.nanoTime() - redisSuspendedUntilNanos >= 0) {
+                try {
+                    redisClient = redisClientSupplier.get();
+                } catch (RuntimeException e) {
+                    suspendRedis(e);
+                }
+            }
+            return redisClient;
+        }
+    }
+
+    private void suspendRedis(Throwable error) {
+        redisSuspendedUntilNanos = System.nanoTime() + REDIS_RETRY_NANOS;
+        logger.warn("Redis 二级缓存不可用，{} 秒内只使用本地缓存: {}",
+            TimeUnit.NANOSECONDS.toSeconds(REDIS_RETRY_NANOS), namespace, error);
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 缓存键：命名空间 + 规范化输入的 SHA-256
+     * 规范化包括 Unicode NFKC、去除首尾空白和合并连续空白；不转小写，大小写不同的聊天输入可能需要不同的回复
+     */
+    String keyOf(String input) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(input, Normalizer.Form.NFKC).trim())
+            .replaceAll(" ");
+        byte[] digest = SHA256.get().digest(normalized.getBytes(StandardCharsets.UTF_8));
+        return "ai:cache:" + namespace + ":" + HexFormat.of().formatHex(digest);
+    }
+
+    public void invalidateAll() {
+        localCache.clear();
+    }
+
+    // 统计信息
+    public long getLocalHits() { return localCache.getHits(); }
+    public long getRedisHits() { return redisHits.sum(); }
+    public long getLoads() { return loads.sum(); }
+    public long getDeduplicated() { return deduplicated.sum(); }
+    public long getEvictions() { return localCache.getEvictions(); }
+    public int getSize() { return localCache.size(); }
+}
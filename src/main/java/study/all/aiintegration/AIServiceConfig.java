@@ -0,0 +1,265 @@
+package study.all.aiintegration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * AI服务连接配置
+ * 服务地址、连接/各接口超时、最大并发请求数和HTTP协议版本，熔断和自适应并发参数，集群限流，本地降级分类器，以及指标采集
+ */
+public class AIServiceConfig {
+
+    private String baseUrl = "http://localhost:5000";
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration classifyTimeout = Duration.ofSeconds(3);
+    private Duration chatTimeout = Duration.ofSeconds(10);
+    private Duration imageTimeout = Duration.ofSeconds(30);
+    private Duration streamIdleTimeout = Duration.ofSeconds(15);
+    private int maxConcurrentRequests = 32;
+    private HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+    private int classifyBatchSize = 64;
+    private long classifyBatchLingerMicros = 2000;
+    private int maxConcurrentBatches = 4;
+    private int resultCacheMaxSize = 10000;
+    private Duration resultCacheTtl = Duration.ofMinutes(10);
+    private boolean redisResultCache = false;
+    private int breakerWindowSize = 20;
+    private int breakerMinimumCalls = 10;
+    private double breakerFailureRateThreshold = 0.5;
+    private Duration breakerOpenDuration = Duration.ofSeconds(5);
+    private int breakerHalfOpenPermits = 3;
+    private int minConcurrentRequests = 1;
+    private double concurrencyBackoffRatio = 0.9;
+    private long rateLimit = 0;
+    private Duration rateLimitInterval = Duration.ofSeconds(1);
+    private int rateLimitPrefetch = 1;
+    private DistributedRateLimiter.OverBudgetPolicy rateLimitPolicy = DistributedRateLimiter.OverBudgetPolicy.FALLBACK;
+    private Duration rateLimitMaxWait = Duration.ZERO;
+    private String rateLimiterName = "ai:rate-limiter:ai-service";
+    private FallbackClassifier fallbackClassifier = LexiconClassifier.defaults();
+    private AIMetrics metrics = new DefaultAIMetrics();
+    private String jmxName = null;
+
+    public static AIServiceConfig defaults() {
+        return new AIServiceConfig();
+    }
+
+    // 构造器模式
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private AIServiceConfig config = new AIServiceConfig();
+
+        public Builder baseUrl(String baseUrl) {
+            config.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            config.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder classifyTimeout(Duration classifyTimeout) {
+            config.classifyTimeout = classifyTimeout;
+            return this;
+        }
+
+        public Builder chatTimeout(Duration chatTimeout) {
+            config.chatTimeout = chatTimeout;
+            return this;
+        }
+
+        public Builder imageTimeout(Duration imageTimeout) {
+            config.imageTimeout = imageTimeout;
+            return this;
+        }
+
+        /**
+         * 流式响应两行之间的最长间隔，超过后中止请求；下游暂停读取（背压）期间不计时
+         */
+        public Builder streamIdleTimeout(Duration streamIdleTimeout) {
+            if (streamIdleTimeout == null || streamIdleTimeout.isZero() || streamIdleTimeout.isNegative()) {
+                throw new IllegalArgumentException("流式空闲超时必须为正");
+            }
+            config.streamIdleTimeout = streamIdleTimeout;
+            return this;
+        }
+
+        /**
+         * 同时进行中的请求上限；HTTP/1.1 下也就是连接数上限
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            if (maxConcurrentRequests <= 0) {
+                throw new IllegalArgumentException("maxConcurrentRequests 必须大于 0");
+            }
+            config.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * HTTP_2 时对明文地址会尝试 h2c 升级，服务端不支持则自动回落到 HTTP/1.1
+         */
+        public Builder httpVersion(HttpClient.Version httpVersion) {
+            config.httpVersion = httpVersion;
+            return this;
+        }
+
+        /**
+         * 合并分类请求：单批最多文本数、凑批等待时间（微秒）和同时发送的批数
+         */
+        public Builder classifyBatching(int batchSize, long lingerMicros, int maxConcurrentBatches) {
+            if (batchSize <= 0 || lingerMicros < 0 || maxConcurrentBatches <= 0) {
+                throw new IllegalArgumentException("批大小、等待时间和并发批数必须为正数");
+            }
+            config.classifyBatchSize = batchSize;
+            config.classifyBatchLingerMicros = lingerMicros;
+            config.maxConcurrentBatches = maxConcurrentBatches;
+            return this;
+        }
+
+        /**
+         * 推理结果缓存的本地容量和存活时间，容量为 0 时关闭缓存
+         */
+        public Builder resultCache(int maxSize, Duration ttl) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("缓存容量不能为负数");
+            }
+            if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+                throw new IllegalArgumentException("缓存存活时间必须为正");
+            }
+            config.resultCacheMaxSize = maxSize;
+            config.resultCacheTtl = ttl;
+            return this;
+        }
+
+        /**
+         * 是否通过 RedissonConfig 的客户端启用 Redis 二级结果缓存（跨节点共享、重启后仍然有效）
+         */
+        public Builder redisResultCache(boolean enabled) {
+            config.redisResultCache = enabled;
+            return this;
+        }
+
+        /**
+         * 熔断器：统计窗口（最近调用次数）、最少调用数、失败率阈值、打开后的冷却时间和半开试探次数
+         */
+        public Builder circuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                                      Duration openDuration, int halfOpenPermits) {
+            if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize || halfOpenPermits <= 0) {
+                throw new IllegalArgumentException("熔断器窗口参数无效");
+            }
+            if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+                throw new IllegalArgumentException("失败率阈值必须在 (0, 1] 之间");
+            }
+            config.breakerWindowSize = windowSize;
+            config.breakerMinimumCalls = minimumCalls;
+            config.breakerFailureRateThreshold = failureRateThreshold;
+            config.breakerOpenDuration = openDuration;
+            config.breakerHalfOpenPermits = halfOpenPermits;
+            return this;
+        }
+
+        /**
+         * 自适应并发：上限最低降到 minConcurrentRequests，每次拥塞乘以 backoffRatio；
+         * 上限的上界为 maxConcurrentRequests
+         */
+        public Builder adaptiveConcurrency(int minConcurrentRequests, double backoffRatio) {
+            if (minConcurrentRequests <= 0 || backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("最小并发数必须大于 0，回退系数必须在 (0, 1) 之间");
+            }
+            config.minConcurrentRequests = minConcurrentRequests;
+            config.concurrencyBackoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * 集群限流：所有使用同一 limiterName 的节点共享每个 interval 内 rate 次调用的预算，
+         * 依赖 RedissonConfig 的客户端；每次从 Redis 预取 prefetch 个令牌到本地。
+         * 超出预算时按 policy 等待（最多 maxWait）、向调用方抛出 AIRateLimitExceededException 或直接降级。
+         * 默认不限流
+         */
+        public Builder distributedRateLimit(String limiterName, long rate, Duration interval, int prefetch,
+                                            DistributedRateLimiter.OverBudgetPolicy policy, Duration maxWait) {
+            if (rate <= 0 || prefetch <= 0 || prefetch > rate) {
+                throw new IllegalArgumentException("限流速率必须为正数，预取数量必须在 1 到 rate 之间");
+            }
+            if (interval.isZero() || interval.isNegative() || maxWait.isNegative()) {
+                throw new IllegalArgumentException("限流周期必须为正，等待时间不能为负");
+            }
+            config.rateLimiterName = limiterName;
+            config.rateLimit = rate;
+            config.rateLimitInterval = interval;
+            config.rateLimitPrefetch = prefetch;
+            config.rateLimitPolicy = policy;
+            config.rateLimitMaxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * AI服务不可用时使用的本地分类器，默认为内置词典的 {@link LexiconClassifier}；
+         * 可传入 LexiconClassifier.load(词典文件) 或 LinearModelClassifier.load(模型文件)
+         */
+        public Builder fallbackClassifier(FallbackClassifier fallbackClassifier) {
+            config.fallbackClassifier = fallbackClassifier;
+            return this;
+        }
+
+        /**
+         * 指标采集实现，默认 {@link DefaultAIMetrics}；传入 AIMetrics.noop() 关闭采集
+         */
+        public Builder metrics(AIMetrics metrics) {
+            config.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * JMX 注册名，默认不注册 MBean；同一 JVM 内多个服务实例必须使用不同名称，否则后注册的会失败
+         */
+        public Builder jmxName(String jmxName) {
+            config.jmxName = jmxName;
+            return this;
+        }
+
+        public AIServiceConfig build() {
+            if (config.minConcurrentRequests > config.maxConcurrentRequests) {
+                throw new IllegalArgumentException("最小并发数不能大于 maxConcurrentRequests");
+            }
+            return config;
+        }
+    }
+
+    // Getters
+    public String getBaseUrl() { return baseUrl; }
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public Duration getClassifyTimeout() { return classifyTimeout; }
+    public Duration getChatTimeout() { return chatTimeout; }
+    public Duration getImageTimeout() { return imageTimeout; }
+    public Duration getStreamIdleTimeout() { return streamIdleTimeout; }
+    public int getMaxConcurrentRequests() { return maxConcurrentRequests; }
+    public HttpClient.Version getHttpVersion() { return httpVersion; }
+    public int getClassifyBatchSize() { return classifyBatchSize; }
+    public long getClassifyBatchLingerMicros() { return classifyBatchLingerMicros; }
+    public int getMaxConcurrentBatches() { return maxConcurrentBatches; }
+    public int getResultCacheMaxSize() { return resultCacheMaxSize; }
+    public Duration getResultCacheTtl() { return resultCacheTtl; }
+    public boolean isRedisResultCache() { return redisResultCache; }
+    public int getBreakerWindowSize() { return breakerWindowSize; }
+    public int getBreakerMinimumCalls() { return breakerMinimumCalls; }
+    public double getBreakerFailureRateThreshold() { return breakerFailureRateThreshold; }
+    public Duration getBreakerOpenDuration() { return breakerOpenDuration; }
+    public int getBreakerHalfOpenPermits() { return breakerHalfOpenPermits; }
+    public int getMinConcurrentRequests() { return minConcurrentRequests; }
+    public double getConcurrencyBackoffRatio() { return concurrencyBackoffRatio; }
+    public long getRateLimit() { return rateLimit; }
+    public Duration getRateLimitInterval() { return rateLimitInterval; }
+    public int getRateLimitPrefetch() { return rateLimitPrefetch; }
+    public DistributedRateLimiter.OverBudgetPolicy getRateLimitPolicy() { return rateLimitPolicy; }
+    public Duration getRateLimitMaxWait() { return rateLimitMaxWait; }
+    public String getRateLimiterName() { return rateLimiterName; }
+    public FallbackClassifier getFallbackClassifier() { return fallbackClassifier; }
+    public AIMetrics getMetrics() { return metrics; }
+    public String getJmxName() { return jmxName; }
+}
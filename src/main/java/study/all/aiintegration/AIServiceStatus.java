@@ -0,0 +1,42 @@
+package study.all.aiintegration;
+
+/**
+ * {@link AIServiceStatusMXBean} 的实现，读取 AIHttpClient 的熔断器、并发限制和集群限流器
+ */
+public class AIServiceStatus implements AIServiceStatusMXBean {
+
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DistributedRateLimiter rateLimiter;
+
+    public AIServiceStatus(AIHttpClient httpClient) {
+        this.circuitBreaker = httpClient.getCircuitBreaker();
+        this.concurrencyLimiter = httpClient.getConcurrencyLimiter();
+        this.rateLimiter = httpClient.getRateLimiter();
+    }
+
+    @Override
+    public String getCircuitState() { return circuitBreaker.getState().name(); }
+    @Override
+    public double getCircuitFailureRate() { return circuitBreaker.getFailureRate(); }
+    @Override
+    public long getCircuitRejectedCalls() { return circuitBreaker.getRejectedCalls(); }
+    @Override
+    public long getCircuitOpenedTimes() { return circuitBreaker.getOpenedTimes(); }
+    @Override
+    public int getConcurrencyLimit() { return concurrencyLimiter.getLimit(); }
+    @Override
+    public int getMaxConcurrencyLimit() { return concurrencyLimiter.getMaxLimit(); }
+    @Override
+    public int getInFlightRequests() { return concurrencyLimiter.getInFlight(); }
+    @Override
+    public long getConcurrencyRejectedCalls() { return concurrencyLimiter.getRejectedCalls(); }
+    @Override
+    public long getRateLimitRejectedCalls() { return rateLimiter != null ? rateLimiter.getRejected() : 0; }
+    @Override
+    public long getRateLimitLocalGrants() { return rateLimiter != null ? rateLimiter.getLocalGrants() : 0; }
+    @Override
+    public long getRateLimitRemoteFetches() { return rateLimiter != null ? rateLimiter.getRemoteFetches() : 0; }
+    @Override
+    public long getRateLimitRedisErrors() { return rateLimiter != null ? rateLimiter.getRedisErrors() : 0; }
+}
@@ -0,0 +1,34 @@
+package study.all.aiintegration;
+
+/**
+ * AI服务客户端整体状态（JMX）：熔断器、自适应并发上限和集群限流
+ */
+public interface AIServiceStatusMXBean {
+
+    String getCircuitState();
+
+    double getCircuitFailureRate();
+
+    long getCircuitRejectedCalls();
+
+    long getCircuitOpenedTimes();
+
+    int getConcurrencyLimit();
+
+    int getMaxConcurrencyLimit();
+
+    int getInFlightRequests();
+
+    long getConcurrencyRejectedCalls();
+
+    /**
+     * 以下限流指标在未配置集群限流时均为 0
+     */
+    long getRateLimitRejectedCalls();
+
+    long getRateLimitLocalGrants();
+
+    long getRateLimitRemoteFetches();
+
+    long getRateLimitRedisErrors();
+}
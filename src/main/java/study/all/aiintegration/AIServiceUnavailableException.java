@@ -0,0 +1,14 @@
+package study.all.aiintegration;
+
+import java.io.IOException;
+
+/**
+ * AI服务被熔断或并发已达上限时的快速失败，请求没有发往后端
+ */
+public class AIServiceUnavailableException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public AIServiceUnavailableException(String message) {
+        super(message);
+    }
+}
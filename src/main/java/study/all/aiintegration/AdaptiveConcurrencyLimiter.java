@@ -0,0 +1,95 @@
+package study.all.aiintegration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制（AIMD）
+ * 请求正常返回时加法增大上限（每轮约 +1），超时、失败或响应过慢时按比例乘法减小；
+ * 超过当前上限的请求立即被拒绝，而不是排队等待，避免后端过载时请求越积越多。
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    /**
+     * @param minLimit     上限的下界
+     * @param maxLimit     上限的上界，初始上限也取此值
+     * @param backoffRatio 每次拥塞时上限乘以的系数（0~1）
+     */
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, double backoffRatio) {
+        if (minLimit <= 0 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("并发限制参数无效");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * @return false 表示已达到当前上限，调用方应立即降级
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * 请求在期望延迟内完成
+     */
+    public synchronized void onSuccess() {
+        // 只有确实用到接近上限的并发时才增长，避免低负载期间上限虚高
+        if (inFlight * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        inFlight--;
+    }
+
+    /**
+     * 请求超时、失败或明显变慢，视为拥塞信号
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        double newLimit = Math.max(minLimit, limit * backoffRatio);
+        if ((int) newLimit < (int) limit) {
+            logger.debug("AI服务并发上限下调: {} -> {}", (int) limit, (int) newLimit);
+        }
+        limit = newLimit;
+        decreases.increment();
+    }
+
+    /**
+     * 与后端负载无关的结束（如调用线程被中断），只归还名额
+     */
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejectedCalls() { return rejected.sum(); }
+    public long getDecreases() { return decreases.sum(); }
+    public int getMaxLimit() { return maxLimit; }
+}
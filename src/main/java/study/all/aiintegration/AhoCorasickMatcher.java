@@ -0,0 +1,145 @@
+package study.all.aiintegration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick 多模式匹配自动机
+ * 一次扫描文本即可找出所有词条的全部出现位置，耗时与文本长度加匹配次数成正比，与词条数量无关。
+ * 构建后不可变，可被多线程共享；每个节点的出边按字符排序存放在数组里，匹配时二分查找，不装箱。
+ */
+final class AhoCorasickMatcher {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // 在该节点结束的词条下标，没有时为 -1
+    private final int[] output;
+    // 沿失败链最近的一个有输出的节点，没有时为 0（根）
+    private final int[] dictLink;
+    private final int patternCount;
+
+    /**
+     * @param patterns 词条列表，回调中以列表下标标识；词条不能为空，也不能重复
+     */
+    AhoCorasickMatcher(List<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("词条不能为空");
+            }
+            int node = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                Integer next = trie.get(node).get(pattern.charAt(j));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(node).put(pattern.charAt(j), next);
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                }
+                node = next;
+            }
+            if (outputs.get(node) >= 0) {
+                throw new IllegalArgumentException("重复的词条: " + pattern);
+            }
+            outputs.set(node, i);
+        }
+
+        int size = trie.size();
+        this.edgeChars = new char[size][];
+        this.edgeTargets = new int[size][];
+        this.output = new int[size];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            char[] chars = edges.isEmpty() ? NO_CHARS : new char[edges.size()];
+            int[] targets = edges.isEmpty() ? NO_TARGETS : new int[edges.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                chars[k] = edge.getKey();
+                targets[k++] = edge.getValue();
+            }
+            edgeChars[node] = chars;
+            edgeTargets[node] = targets;
+            output[node] = outputs.get(node);
+        }
+        this.fail = new int[size];
+        this.dictLink = new int[size];
+        this.patternCount = patterns.size();
+        buildFailureLinks();
+    }
+
+    /**
+     * 按 BFS 顺序计算失败链接，保证处理某个节点时更浅的节点都已完成
+     */
+    private void buildFailureLinks() {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int k = 0; k < edgeChars[node].length; k++) {
+                char c = edgeChars[node][k];
+                int child = edgeTargets[node][k];
+                int target = fail[node];
+                int next;
+                while ((next = edge(target, c)) < 0 && target != 0) {
+                    target = fail[target];
+                }
+                fail[child] = next >= 0 ? next : 0;
+                dictLink[child] = output[fail[child]] >= 0 ? fail[child] : dictLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int edge(int node, char c) {
+        char[] chars = edgeChars[node];
+        int low = 0;
+        int high = chars.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chars[mid] < c) {
+                low = mid + 1;
+            } else if (chars[mid] > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[node][mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 扫描文本，每出现一次词条就以其下标回调一次（包括相互重叠、互为子串的词条）
+     */
+    void match(CharSequence text, IntConsumer onMatch) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = edge(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next >= 0 ? next : 0;
+            for (int node = output[state] >= 0 ? state : dictLink[state]; node != 0; node = dictLink[node]) {
+                onMatch.accept(output[node]);
+            }
+        }
+    }
+
+    int getPatternCount() {
+        return patternCount;
+    }
+}
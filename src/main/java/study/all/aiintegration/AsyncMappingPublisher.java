@@ -0,0 +1,203 @@
+package study.all.aiintegration;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 把上游元素逐个映射为异步调用的响应式发布者
+ * 同时进行中的调用不超过 maxConcurrency（向上游的请求量即为空闲名额），
+ * 结果按上游顺序、按下游请求量发出；下游取消时取消上游订阅和所有未完成的调用。
+ */
+final class AsyncMappingPublisher<T, R> implements Flow.Publisher<R> {
+
+    private final Flow.Publisher<T> upstream;
+    private final Function<T, CompletableFuture<R>> mapper;
+    private final int maxConcurrency;
+
+    AsyncMappingPublisher(Flow.Publisher<T> upstream, Function<T, CompletableFuture<R>> mapper, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency 必须大于 0");
+        }
+        this.upstream = upstream;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        upstream.subscribe(new MappingSubscription<>(subscriber, mapper, maxConcurrency));
+    }
+
+    private static final class MappingSubscription<T, R> implements Flow.Subscriber<T>, Flow.Subscription {
+        private final Flow.Subscriber<? super R> downstream;
+        private final Function<T, CompletableFuture<R>> mapper;
+        private final int maxConcurrency;
+
+        private final Queue<CompletableFuture<R>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        // 保证对下游的信号串行发出
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean upstreamDone;
+        private volatile Throwable upstreamError;
+        private volatile Throwable requestError;
+        private volatile boolean cancelled;
+        private boolean terminated;
+
+        MappingSubscription(Flow.Subscriber<? super R> downstream, Function<T, CompletableFuture<R>> mapper,
+                            int maxConcurrency) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            if (!cancelled) {
+                subscription.request(maxConcurrency);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (cancelled) {
+                return;
+            }
+            CompletableFuture<R> future;
+            try {
+                future = mapper.apply(item);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            pending.offer(future);
+            future.whenComplete((value, error) -> drain());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            upstreamError = throwable;
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("request 数量必须为正数: " + n);
+                drain();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long emitted = 0;
+                while (!terminated) {
+                    if (requestError != null) {
+                        terminate(requestError);
+                        break;
+                    }
+                    if (cancelled) {
+                        cancelPending();
+                        terminated = true;
+                        break;
+                    }
+                    CompletableFuture<R> head = pending.peek();
+                    if (head == null) {
+                        if (upstreamDone) {
+                            terminate(upstreamError);
+                        }
+                        break;
+                    }
+                    if (!head.isDone() || demand.get() == 0) {
+                        break;
+                    }
+                    pending.poll();
+                    R value;
+                    try {
+                        value = head.join();
+                    } catch (CompletionException | CancellationException e) {
+                        terminate(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                        break;
+                    }
+                    if (value == null) {
+                        terminate(new NullPointerException("异步调用结果为 null"));
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    emitted++;
+                    downstream.onNext(value);
+                }
+                // 每发出一个结果就空出一个并发名额
+                if (emitted > 0 && !terminated && !upstreamDone) {
+                    upstream.request(emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void terminate(Throwable error) {
+            terminated = true;
+            if (error != null) {
+                cancelled = true;
+                Flow.Subscription subscription = upstream;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                cancelPending();
+                downstream.onError(error);
+            } else {
+                downstream.onComplete();
+            }
+        }
+
+        private void cancelPending() {
+            CompletableFuture<R> future;
+            while ((future = pending.poll()) != null) {
+                future.cancel(true);
+            }
+        }
+    }
+}
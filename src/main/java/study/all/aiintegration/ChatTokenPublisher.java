@@ -0,0 +1,101 @@
+package study.all.aiintegration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式聊天的 token 发布者
+ * 每次订阅发起一次 /api/chat/stream 请求，token 按下游请求量逐个发出（没有需求时暂停读取响应体）；
+ * 收到 done 事件后 onComplete，请求失败时 onError；取消订阅会中止 HTTP 交换。
+ */
+final class ChatTokenPublisher implements Flow.Publisher<String> {
+
+    private final AIHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String path;
+    private final Object requestBody;
+    private final Duration timeout;
+
+    ChatTokenPublisher(AIHttpClient httpClient, ObjectMapper objectMapper, String path, Object requestBody,
+                       Duration timeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.path = path;
+        this.requestBody = requestBody;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> subscriber) {
+        TokenSubscription subscription = new TokenSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    private final class TokenSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super String> downstream;
+        private final AtomicLong demand = new AtomicLong();
+        private final SseChatParser parser;
+        private volatile CompletableFuture<Void> exchange;
+        private volatile boolean cancelled;
+
+        TokenSubscription(Flow.Subscriber<? super String> downstream) {
+            this.downstream = downstream;
+            this.parser = new SseChatParser(objectMapper, downstream::onNext, demand);
+        }
+
+        void start() {
+            if (cancelled) {
+                return;
+            }
+            parser.result().whenComplete((response, error) -> {
+                if (cancelled) {
+                    return;
+                }
+                if (error != null) {
+                    downstream.onError(error);
+                } else {
+                    downstream.onComplete();
+                }
+            });
+            CompletableFuture<Void> started = httpClient.postJsonStream(path, requestBody, timeout, parser);
+            exchange = started;
+            started.whenComplete((value, error) -> {
+                if (error != null) {
+                    parser.fail(error);
+                }
+            });
+            if (cancelled) {
+                started.cancel(true);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("request 数量必须为正数: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            parser.resume();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            parser.cancel();
+            CompletableFuture<Void> current = exchange;
+            if (current != null) {
+                current.cancel(true);
+            }
+        }
+    }
+}
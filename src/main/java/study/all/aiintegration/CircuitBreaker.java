@@ -0,0 +1,176 @@
+package study.all.aiintegration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 熔断器（关闭 / 打开 / 半开）
+ * 关闭状态下按最近 N 次调用的失败率判断是否打开；打开后在冷却时间内直接拒绝调用；
+ * 冷却结束进入半开状态，放行少量试探调用，全部成功则关闭，任一失败则重新打开。
+ * 每次状态变化递增代数，许可记录申请时的代数；在旧状态下发出、新状态下才结束的调用结果直接忽略，
+ * 例如关闭状态发出的慢调用不会占用半开状态的试探名额。
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /** {@link #tryAcquire()} 拒绝时的返回值 */
+    public static final long REJECTED = -1;
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenPermits;
+
+    // 最近 windowSize 次调用结果的环形记录
+    private final boolean[] outcomes;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder openedTimes = new LongAdder();
+
+    /**
+     * @param windowSize           统计失败率的最近调用次数
+     * @param minimumCalls         窗口内至少多少次调用后才计算失败率
+     * @param failureRateThreshold 失败率阈值（0~1），达到即打开
+     * @param openDuration         打开状态的冷却时间
+     * @param halfOpenPermits      半开状态放行的试探调用数
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenPermits) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize || halfOpenPermits <= 0) {
+            throw new IllegalArgumentException("熔断器窗口参数无效");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenPermits = halfOpenPermits;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * 申请一次调用许可
+     * @return 许可，调用结束时传给 onSuccess / onFailure / onIgnored；
+     *         {@link #REJECTED} 表示熔断器打开（或半开且试探名额已满），调用方应立即降级
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected.increment();
+                return REJECTED;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenPermits) {
+                rejected.increment();
+                return REJECTED;
+            }
+            halfOpenInFlight++;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (++halfOpenSuccesses >= halfOpenPermits) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 调用以与后端健康无关的原因结束（如调用线程被中断），只归还半开试探名额
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == windowSize) {
+            if (outcomes[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        outcomes[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+    }
+
+    private void transitionTo(State newState) {
+        logger.info("熔断器[{}] 状态变化: {} -> {}", name, state, newState);
+        state = newState;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+            openedTimes.increment();
+        } else if (newState == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 当前窗口内的失败率
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    public long getRejectedCalls() { return rejected.sum(); }
+    public long getOpenedTimes() { return openedTimes.sum(); }
+    public String getName() { return name; }
+}
@@ -0,0 +1,209 @@
+package study.all.aiintegration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 文本分类请求合并器
+ * 把并发的 classifyText 调用在一个很短的时间窗口内（或凑满批大小时）合并为一次
+ * /api/classify/batch 请求，再把结果逐个分发给调用方的 CompletableFuture。
+ * 批量请求失败时每条文本单独走降级分类。
+ * 待合并队列和待发送批次都有上限：发送线程全忙时由收集线程自己发送，收集变慢后待合并队列被填满，
+ * 此时新提交的文本直接降级，不再无限堆积。
+ */
+public class ClassificationBatcher implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ClassificationBatcher.class);
+
+    static final String BATCH_PATH = "/api/classify/batch";
+
+    // 待合并队列最多容纳的批数
+    private static final int QUEUED_BATCHES = 4;
+
+    private final AIHttpClient httpClient;
+    private final Function<String, String> fallback;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PendingText> queue;
+    private final ExecutorService sender;
+    private final Thread collector;
+    private volatile boolean closed = false;
+
+    /**
+     * @param httpClient          HTTP客户端
+     * @param fallback            单条文本的降级分类
+     * @param maxBatchSize        单次批量请求的最大文本数
+     * @param lingerMicros        第一条文本到达后最多等待多少微秒再发送
+     * @param maxConcurrentBatches 同时发送中的批量请求数
+     */
+    public ClassificationBatcher(AIHttpClient httpClient, Function<String, String> fallback,
+                                 int maxBatchSize, long lingerMicros, int maxConcurrentBatches) {
+        if (maxBatchSize <= 0 || lingerMicros < 0 || maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("批大小、等待时间和并发批数必须为正数");
+        }
+        this.httpClient = httpClient;
+        this.fallback = fallback;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.queue = new LinkedBlockingQueue<>((int) Math.min(Integer.MAX_VALUE,
+            (long) maxBatchSize * maxConcurrentBatches * QUEUED_BATCHES));
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 线程和排队的批次都有上限，排满后由收集线程自己发送，关闭后拒绝（由 dispatch 降级）
+        this.sender = new ThreadPoolExecutor(maxConcurrentBatches, maxConcurrentBatches, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxConcurrentBatches), r -> {
+                Thread t = new Thread(r, "classify-batch-sender-" + threadIndex.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, (task, executor) -> {
+                if (executor.isShutdown()) {
+                    throw new RejectedExecutionException("ClassificationBatcher 已关闭");
+                }
+                task.run();
+            });
+        this.collector = new Thread(this::collectLoop, "classify-batch-collector");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    /**
+     * 提交一条待分类文本
+     */
+    public CompletableFuture<String> classify(String text) {
+        PendingText pending = new PendingText(text);
+        if (closed) {
+            pending.future.complete(fallback.apply(text));
+            return pending.future;
+        }
+        if (!queue.offer(pending)) {
+            logger.debug("分类合并队列已满，文本直接降级");
+            pending.future.complete(fallback.apply(text));
+            return pending.future;
+        }
+        // 与 close 并发时文本可能在最后一次清空队列之后才入队；谁从队列里移除它谁负责完成 Future
+        if (closed && queue.remove(pending)) {
+            pending.future.complete(fallback.apply(text));
+        }
+        return pending.future;
+    }
+
+    /**
+     * 收集线程：等待第一条文本，然后在时间窗口内尽量凑满一批
+     */
+    private void collectLoop() {
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingText first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingText> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingText next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void dispatch(List<PendingText> batch) {
+        try {
+            sender.execute(() -> sendBatch(batch));
+        } catch (RejectedExecutionException e) {
+            fallbackAll(batch);
+        }
+    }
+
+    /**
+     * 发送一次批量请求并分发结果
+     */
+    private void sendBatch(List<PendingText> batch) {
+        List<String> texts = new ArrayList<>(batch.size());
+        for (PendingText pending : batch) {
+            texts.add(pending.text);
+        }
+
+        try {
+            List<String> results = httpClient.postJson(BATCH_PATH, new AIApiModels.BatchClassifyRequest(texts),
+                httpClient.getConfig().getClassifyTimeout(), AIApiModels::parseBatchClassifications);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("批量分类结果数量不匹配");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                PendingText pending = batch.get(i);
+                String classification = results.get(i);
+                pending.future.complete(classification != null ? classification : fallback.apply(pending.text));
+            }
+        } catch (AIRateLimitExceededException e) {
+            // 限流策略为 FAIL_FAST，不降级
+            for (PendingText pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.debug("批量分类请求失败，{} 条文本使用降级分类", batch.size(), e);
+            fallbackAll(batch);
+        }
+    }
+
+    private void fallbackAll(List<PendingText> batch) {
+        for (PendingText pending : batch) {
+            if (!pending.future.isDone()) {
+                pending.future.complete(fallback.apply(pending.text));
+            }
+        }
+    }
+
+    /**
+     * 关闭合并器，已提交的文本会在关闭前发送或降级
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            collector.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingText> left = new ArrayList<>();
+        queue.drainTo(left);
+        fallbackAll(left);
+        sender.shutdown();
+    }
+
+    private static final class PendingText {
+        final String text;
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        PendingText(String text) {
+            this.text = text;
+        }
+    }
+}
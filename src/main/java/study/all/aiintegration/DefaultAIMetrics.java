@@ -0,0 +1,220 @@
+package study.all.aiintegration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 默认指标实现：按接口路径分别统计计数器、进行中请求数，以及 TTFB / 总耗时 / 请求体 / 响应体大小的直方图
+ * 调用 {@link #registerMBeans(String)} 后每个接口注册为一个 JMX MBean（包括之后才出现的接口）
+ */
+public class DefaultAIMetrics implements AIMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(DefaultAIMetrics.class);
+
+    static final String JMX_DOMAIN = "study.all.aiintegration";
+
+    private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+    private volatile String jmxName;
+
+    @Override
+    public void requestStarted(String endpoint) {
+        endpoint(endpoint).inFlight.increment();
+    }
+
+    @Override
+    public void requestFinished(String endpoint, Outcome outcome, long ttfbNanos, long totalNanos,
+                                long requestBytes, long responseBytes) {
+        EndpointMetrics metrics = endpoint(endpoint);
+        metrics.inFlight.decrement();
+        if (outcome == Outcome.SUCCESS) {
+            metrics.successes.increment();
+        } else if (outcome == Outcome.ERROR) {
+            metrics.errors.increment();
+        } else {
+            metrics.cancelled.increment();
+        }
+        if (ttfbNanos >= 0) {
+            metrics.ttfb.record(ttfbNanos);
+        }
+        metrics.total.record(totalNanos);
+        if (requestBytes >= 0) {
+            metrics.requestBytes.record(requestBytes);
+        }
+        if (responseBytes >= 0) {
+            metrics.responseBytes.record(responseBytes);
+        }
+    }
+
+    @Override
+    public void requestRejected(String endpoint, RejectReason reason) {
+        EndpointMetrics metrics = endpoint(endpoint);
+        if (reason == RejectReason.CIRCUIT_OPEN) {
+            metrics.rejectedByCircuit.increment();
+        } else if (reason == RejectReason.RATE_LIMIT) {
+            metrics.rejectedByRateLimit.increment();
+        } else {
+            metrics.rejectedByLimit.increment();
+        }
+    }
+
+    @Override
+    public void fallbackUsed(String endpoint) {
+        endpoint(endpoint).fallbacks.increment();
+    }
+
+    /**
+     * 获取某个接口的指标，没有调用过时返回 null
+     */
+    public EndpointMetrics getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    public Collection<EndpointMetrics> getEndpoints() {
+        return endpoints.values();
+    }
+
+    private EndpointMetrics endpoint(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics != null) {
+            return metrics;
+        }
+        return endpoints.computeIfAbsent(endpoint, key -> {
+            EndpointMetrics created = new EndpointMetrics(key);
+            String name = jmxName;
+            if (name != null) {
+                register(name, created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * 以 study.all.aiintegration:type=AIEndpoint,name=&lt;name&gt;,endpoint=&lt;路径&gt; 注册到平台 MBeanServer
+     */
+    public synchronized void registerMBeans(String name) {
+        jmxName = name;
+        for (EndpointMetrics metrics : endpoints.values()) {
+            register(name, metrics);
+        }
+    }
+
+    public synchronized void unregisterMBeans() {
+        jmxName = null;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                logger.debug("注销 MBean 失败: {}", objectName, e);
+            }
+        }
+        registered.clear();
+    }
+
+    private synchronized void register(String name, EndpointMetrics metrics) {
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=AIEndpoint,name="
+                + ObjectName.quote(name) + ",endpoint=" + ObjectName.quote(metrics.getEndpoint()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+            registered.add(objectName);
+        } catch (JMException e) {
+            logger.warn("注册 AI 接口指标 MBean 失败: {} {}", name, metrics.getEndpoint(), e);
+        }
+    }
+
+    /**
+     * 单个接口的指标
+     */
+    public static class EndpointMetrics implements AIEndpointMetricsMXBean {
+        private final String endpoint;
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder rejectedByCircuit = new LongAdder();
+        private final LongAdder rejectedByLimit = new LongAdder();
+        private final LongAdder rejectedByRateLimit = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LogLinearHistogram ttfb = new LogLinearHistogram();
+        private final LogLinearHistogram total = new LogLinearHistogram();
+        private final LogLinearHistogram requestBytes = new LogLinearHistogram();
+        private final LogLinearHistogram responseBytes = new LogLinearHistogram();
+
+        EndpointMetrics(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+
+        @Override
+        public String getEndpoint() { return endpoint; }
+        @Override
+        public long getRequests() { return successes.sum() + errors.sum() + cancelled.sum(); }
+        @Override
+        public long getSuccesses() { return successes.sum(); }
+        @Override
+        public long getErrors() { return errors.sum(); }
+        @Override
+        public long getCancelled() { return cancelled.sum(); }
+        @Override
+        public long getFallbacks() { return fallbacks.sum(); }
+        @Override
+        public long getRejectedByCircuit() { return rejectedByCircuit.sum(); }
+        @Override
+        public long getRejectedByLimit() { return rejectedByLimit.sum(); }
+        @Override
+        public long getRejectedByRateLimit() { return rejectedByRateLimit.sum(); }
+        @Override
+        public long getInFlight() { return inFlight.sum(); }
+        @Override
+        public long getTtfbP50Micros() { return micros(ttfb.getValueAtPercentile(50)); }
+        @Override
+        public long getTtfbP99Micros() { return micros(ttfb.getValueAtPercentile(99)); }
+        @Override
+        public long getTtfbP999Micros() { return micros(ttfb.getValueAtPercentile(99.9)); }
+        @Override
+        public long getTotalP50Micros() { return micros(total.getValueAtPercentile(50)); }
+        @Override
+        public long getTotalP99Micros() { return micros(total.getValueAtPercentile(99)); }
+        @Override
+        public long getTotalP999Micros() { return micros(total.getValueAtPercentile(99.9)); }
+        @Override
+        public long getTotalMaxMicros() { return micros(total.getMax()); }
+        @Override
+        public double getTotalMeanMicros() { return total.getMean() / 1000.0; }
+        @Override
+        public long getRequestBytesP50() { return requestBytes.getValueAtPercentile(50); }
+        @Override
+        public long getRequestBytesP99() { return requestBytes.getValueAtPercentile(99); }
+        @Override
+        public long getResponseBytesP50() { return responseBytes.getValueAtPercentile(50); }
+        @Override
+        public long getResponseBytesP99() { return responseBytes.getValueAtPercentile(99); }
+
+        @Override
+        public void resetHistograms() {
+            ttfb.reset();
+            total.reset();
+            requestBytes.reset();
+            responseBytes.reset();
+        }
+
+        public LogLinearHistogram getTtfbHistogram() { return ttfb; }
+        public LogLinearHistogram getTotalHistogram() { return total; }
+        public LogLinearHistogram getRequestBytesHistogram() { return requestBytes; }
+        public LogLinearHistogram getResponseBytesHistogram() { return responseBytes; }
+    }
+}
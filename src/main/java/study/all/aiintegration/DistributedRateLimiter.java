@@ -0,0 +1,349 @@
+package study.all.aiintegration;
+
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 集群级令牌桶限流（基于 Redisson RRateLimiter，RateType.OVERALL 即所有节点共享同一配额）
+ * 每次从 Redis 预取一批令牌放在本地，大部分请求只做一次本地 CAS；本地余量低于四分之一时异步补充。
+ * 每批预取的令牌只在取到后的一个限流周期内有效，过期作废，避免某个节点囤积配额。
+ * Redis 客户端在第一次取令牌时才创建；Redis 不可用时放行（fail-open），限流故障不应拖垮 AI 调用本身。
+ */
+public class DistributedRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(DistributedRateLimiter.class);
+
+    /**
+     * 超出配额时的处理方式
+     */
+    public enum OverBudgetPolicy {
+        /** 等待至多 maxWait，仍无配额则降级 */
+        WAIT,
+        /** 立即向调用方抛出 {@link AIRateLimitExceededException} */
+        FAIL_FAST,
+        /** 立即走本地降级逻辑 */
+        FALLBACK
+    }
+
+    // 获取 Redis 客户端失败后，间隔这么久再重试
+    private static final long REDIS_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Supplier<RedissonClient> clientSupplier;
+    private final String name;
+    private final long rate;
+    private final Duration interval;
+    private final int prefetch;
+    private final long permitTtlNanos;
+    private final OverBudgetPolicy policy;
+    private final Duration maxWait;
+
+    // 写入速率配置完成后得到限流器；配置失败时以 null 完成，Redis 恢复前放行
+    private volatile CompletableFuture<RRateLimiter> limiter;
+    private volatile long nextConnectAttemptNanos;
+
+    // 本地令牌按预取批次排列，先取到的先过期，数量和过期时间一起整体替换
+    private final AtomicReference<Batch> localBatches = new AtomicReference<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private final LongAdder localGrants = new LongAdder();
+    private final LongAdder remoteFetches = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    /**
+     * @param name     RRateLimiter 在 Redis 中的名称，共享配额的节点使用同一名称
+     * @param rate     每个周期的令牌数
+     * @param interval 限流周期
+     * @param prefetch 每次预取的令牌数，1 表示不预取
+     */
+    public DistributedRateLimiter(RedissonClient client, String name, long rate, Duration interval, int prefetch,
+                                  OverBudgetPolicy policy, Duration maxWait) {
+        this((Supplier<RedissonClient>) () -> client, name, rate, interval, prefetch, policy, maxWait);
+    }
+
+    /**
+     * @param clientSupplier Redis 客户端的获取方式，第一次取令牌时调用，失败则放行并稍后重试
+     */
+    public DistributedRateLimiter(Supplier<RedissonClient> clientSupplier, String name, long rate, Duration interval,
+                                  int prefetch, OverBudgetPolicy policy, Duration maxWait) {
+        if (rate <= 0 || prefetch <= 0 || prefetch > rate) {
+            throw new IllegalArgumentException("限流速率必须为正数，预取数量必须在 1 到 rate 之间");
+        }
+        this.clientSupplier = clientSupplier;
+        this.name = name;
+        this.rate = rate;
+        this.interval = interval;
+        this.prefetch = prefetch;
+        this.permitTtlNanos = interval.toNanos();
+        this.policy = policy;
+        this.maxWait = maxWait;
+        this.nextConnectAttemptNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取一个令牌；WAIT 策略下最多阻塞 maxWait
+     * @return false 表示超出配额，由调用方按策略处理
+     */
+    public boolean acquire() {
+        if (tryTakeLocal()) {
+            return true;
+        }
+        CompletableFuture<RRateLimiter> ready = limiter();
+        RRateLimiter limiter = ready != null ? ready.join() : null;
+        if (limiter == null) {
+            redisErrors.increment();
+            return true;
+        }
+        if (fetch(limiter)) {
+            return true;
+        }
+        if (policy == OverBudgetPolicy.WAIT && !maxWait.isZero()) {
+            try {
+                remoteFetches.increment();
+                if (limiter.tryAcquire(1, maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                return failOpen(e);
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * 非阻塞版本的 {@link #acquire}：只使用 Redisson 的异步命令，可以在 Redisson 的回调线程上调用；
+     * WAIT 策略下的等待同样以异步方式完成，不占用调用线程
+     * @return 以 false 完成表示超出配额
+     */
+    public CompletableFuture<Boolean> acquireAsync() {
+        if (tryTakeLocal()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        CompletableFuture<RRateLimiter> ready = limiter();
+        if (ready == null) {
+            redisErrors.increment();
+            return CompletableFuture.completedFuture(true);
+        }
+        return ready.thenCompose(limiter -> {
+            if (limiter == null) {
+                redisErrors.increment();
+                return CompletableFuture.completedFuture(true);
+            }
+            return fetchAsync(limiter);
+        });
+    }
+
+    private CompletableFuture<Boolean> fetchAsync(RRateLimiter limiter) {
+        remoteFetches.increment();
+        CompletableFuture<Boolean> batch = prefetch > 1
+            ? limiter.tryAcquireAsync(prefetch).toCompletableFuture()
+            : CompletableFuture.completedFuture(false);
+        return batch.thenCompose(acquired -> {
+            if (acquired) {
+                addLocal(prefetch - 1);
+                return CompletableFuture.completedFuture(true);
+            }
+            return limiter.tryAcquireAsync(1).toCompletableFuture();
+        }).thenCompose(acquired -> {
+            if (acquired || policy != OverBudgetPolicy.WAIT || maxWait.isZero()) {
+                return CompletableFuture.completedFuture(acquired);
+            }
+            remoteFetches.increment();
+            return limiter.tryAcquireAsync(1, maxWait.toMillis(), TimeUnit.MILLISECONDS).toCompletableFuture();
+        }).handle((acquired, error) -> {
+            if (error != null) {
+                return failOpen(error);
+            }
+            if (!acquired) {
+                rejected.increment();
+            }
+            return acquired;
+        });
+    }
+
+    private boolean tryTakeLocal() {
+        Batch current;
+        Batch next;
+        do {
+            current = localBatches.get();
+            Batch live = Batch.dropExpired(current, System.nanoTime());
+            if (live == null) {
+                if (current != null) {
+                    localBatches.compareAndSet(current, null);
+                }
+                return false;
+            }
+            next = live.takeOne();
+        } while (!localBatches.compareAndSet(current, next));
+        localGrants.increment();
+        if (Batch.count(next) <= prefetch / 4) {
+            refillAsync();
+        }
+        return true;
+    }
+
+    /**
+     * 同步预取一批令牌，留一个给当前请求；整批不足时退而只取一个
+     */
+    private boolean fetch(RRateLimiter limiter) {
+        try {
+            remoteFetches.increment();
+            if (prefetch > 1 && limiter.tryAcquire(prefetch)) {
+                addLocal(prefetch - 1);
+                return true;
+            }
+            return limiter.tryAcquire(1);
+        } catch (RuntimeException e) {
+            return failOpen(e);
+        }
+    }
+
+    private void refillAsync() {
+        CompletableFuture<RRateLimiter> ready = this.limiter;
+        RRateLimiter limiter = ready != null ? ready.getNow(null) : null;
+        if (prefetch <= 1 || limiter == null || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        remoteFetches.increment();
+        try {
+            limiter.tryAcquireAsync(prefetch).whenComplete((acquired, error) -> {
+                refilling.set(false);
+                if (error != null) {
+                    redisErrors.increment();
+                    logger.debug("异步预取限流令牌失败", error);
+                } else if (Boolean.TRUE.equals(acquired)) {
+                    addLocal(prefetch);
+                }
+            });
+        } catch (RuntimeException e) {
+            refilling.set(false);
+            redisErrors.increment();
+            logger.debug("异步预取限流令牌失败", e);
+        }
+    }
+
+    /**
+     * 新取到的一批令牌排在最后，有自己的过期时间，不延长之前剩下的令牌
+     */
+    private void addLocal(long permits) {
+        long expiresAt = System.nanoTime() + permitTtlNanos;
+        Batch current;
+        Batch next;
+        do {
+            current = localBatches.get();
+            next = Batch.append(Batch.dropExpired(current, System.nanoTime()), permits, expiresAt);
+        } while (!localBatches.compareAndSet(current, next));
+    }
+
+    /**
+     * 第一次用到时获取客户端并异步写入速率配置；获取或配置失败时返回 null 或以 null 完成（放行），
+     * 间隔一段时间后再试。速率配置使用异步命令，在 Redisson 回调线程上调用也不会触发同步调用检查
+     */
+    private CompletableFuture<RRateLimiter> limiter() {
+        CompletableFuture<RRateLimiter> current = limiter;
+        if (current != null || System.nanoTime() - nextConnectAttemptNanos < 0) {
+            return current;
+        }
+        synchronized (this) {
+            if (limiter == null && System.nanoTime() - nextConnectAttemptNanos >= 0) {
+                try {
+                    RRateLimiter created = clientSupplier.get().getRateLimiter(name);
+                    CompletableFuture<RRateLimiter> ready = new CompletableFuture<>();
+                    limiter = ready;
+                    // 已存在的配置不会被覆盖，以先启动的节点为准
+                    created.trySetRateAsync(RateType.OVERALL, rate, interval.toMillis(), RateIntervalUnit.MILLISECONDS)
+                        .whenComplete((set, error) -> {
+                            if (error != null) {
+                                retryLater(ready, error);
+                                ready.complete(null);
+                                return;
+                            }
+                            if (!set) {
+                                logger.info("限流器 {} 已存在，沿用 Redis 中的速率配置", name);
+                            }
+                            ready.complete(created);
+                        });
+                } catch (RuntimeException e) {
+                    retryLater(null, e);
+                }
+            }
+            return limiter;
+        }
+    }
+
+    private void retryLater(CompletableFuture<RRateLimiter> failed, Throwable error) {
+        synchronized (this) {
+            nextConnectAttemptNanos = System.nanoTime() + REDIS_RETRY_NANOS;
+            if (limiter == failed) {
+                limiter = null;
+            }
+        }
+        logger.warn("初始化分布式限流器失败，Redis 恢复前不限流: {}", name, error);
+    }
+
+    private boolean failOpen(Throwable e) {
+        redisErrors.increment();
+        logger.debug("分布式限流器访问 Redis 失败，本次放行", e);
+        return true;
+    }
+
+    public OverBudgetPolicy getPolicy() { return policy; }
+    public long getLocalPermits() { return Batch.count(Batch.dropExpired(localBatches.get(), System.nanoTime())); }
+    public long getLocalGrants() { return localGrants.sum(); }
+    public long getRemoteFetches() { return remoteFetches.sum(); }
+    public long getRejected() { return rejected.sum(); }
+    public long getRedisErrors() { return redisErrors.sum(); }
+
+    /**
+     * 一批预取的令牌，不可变；链表按取到的先后排列
+     */
+    private static final class Batch {
+        final long permits;
+        final long expiresAt;
+        final Batch next;
+
+        Batch(long permits, long expiresAt, Batch next) {
+            this.permits = permits;
+            this.expiresAt = expiresAt;
+            this.next = next;
+        }
+
+        Batch takeOne() {
+            return permits > 1 ? new Batch(permits - 1, expiresAt, next) : next;
+        }
+
+        static Batch dropExpired(Batch head, long now) {
+            while (head != null && now - head.expiresAt > 0) {
+                head = head.next;
+            }
+            return head;
+        }
+
+        static Batch append(Batch head, long permits, long expiresAt) {
+            if (head == null) {
+                return new Batch(permits, expiresAt, null);
+            }
+            return new Batch(head.permits, head.expiresAt, append(head.next, permits, expiresAt));
+        }
+
+        static long count(Batch head) {
+            long total = 0;
+            for (Batch b = head; b != null; b = b.next) {
+                total += b.permits;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package study.all.aiintegration;
+
+/**
+ * 本地降级分类器，Python 服务不可用时代替 /api/classify
+ * 降级期间要承接全部流量，实现必须线程安全、不做 I/O，单次调用应在微秒级完成。
+ * 内置实现：{@link LexiconClassifier}（词典匹配）和 {@link LinearModelClassifier}（词袋线性模型），
+ * 通过 {@link AIServiceConfig.Builder#fallbackClassifier} 替换。
+ */
+@FunctionalInterface
+public interface FallbackClassifier {
+
+    /**
+     * @return 分类标签，如 positive / negative / neutral
+     */
+    String classify(String text);
+}
@@ -0,0 +1,130 @@
+package study.all.aiintegration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 图像上传请求体
+ * ByteBuffer（含直接缓冲区）和大文件的内存映射按块切片发出，切片与源共享内存，不做中间拷贝；
+ * InputStream 长度未知，使用分块传输编码。
+ */
+final class ImageBodyPublishers {
+
+    // 每次交给 HttpClient 的切片大小
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // 超过该大小的文件使用内存映射，小文件直接读取更划算
+    private static final long MAPPED_THRESHOLD = 1024 * 1024;
+
+    private ImageBodyPublishers() {
+    }
+
+    /**
+     * 发送 buffer 的 position 到 limit 之间的内容，不改变调用方 buffer 的位置
+     */
+    static HttpRequest.BodyPublisher ofByteBuffer(ByteBuffer buffer) {
+        return new ByteBufferPublisher(buffer.duplicate());
+    }
+
+    /**
+     * 大文件映射为只读 MappedByteBuffer 后按块发送，页面由内核按需载入；小文件交给 BodyPublishers.ofFile
+     */
+    static HttpRequest.BodyPublisher ofPath(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MAPPED_THRESHOLD || size > Integer.MAX_VALUE) {
+                return HttpRequest.BodyPublishers.ofFile(file);
+            }
+            // 映射在通道关闭后依然有效
+            return new ByteBufferPublisher(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * 流只能被读取一次，因此请求不能被重试；流由 HttpClient 读到末尾后关闭
+     */
+    static HttpRequest.BodyPublisher ofInputStream(InputStream stream) {
+        return HttpRequest.BodyPublishers.ofInputStream(() -> stream);
+    }
+
+    private static final class ByteBufferPublisher implements HttpRequest.BodyPublisher {
+        private final ByteBuffer source;
+
+        ByteBufferPublisher(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public long contentLength() {
+            return source.remaining();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            // 每次订阅（如重试）都从头发送
+            subscriber.onSubscribe(new ChunkSubscription(subscriber, source.duplicate()));
+        }
+    }
+
+    private static final class ChunkSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final ByteBuffer remaining;
+        private final AtomicLong demand = new AtomicLong();
+        // 防止 onNext 中再次 request 造成递归，并保证信号串行
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private boolean completed;
+
+        ChunkSubscription(Flow.Subscriber<? super ByteBuffer> subscriber, ByteBuffer remaining) {
+            this.subscriber = subscriber;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("request 数量必须为正数: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                while (!cancelled && !completed && demand.get() > 0 && remaining.hasRemaining()) {
+                    int length = Math.min(CHUNK_SIZE, remaining.remaining());
+                    ByteBuffer chunk = remaining.slice(remaining.position(), length);
+                    remaining.position(remaining.position() + length);
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk);
+                }
+                if (!cancelled && !completed && !remaining.hasRemaining()) {
+                    completed = true;
+                    subscriber.onComplete();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package study.all.aiintegration;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * 基于 Jackson 流式 API 的响应解析
+ * 调用时 parser 已定位在响应的第一个 token 上
+ */
+@FunctionalInterface
+public interface JsonResponseParser<T> {
+
+    T parse(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,147 @@
+package study.all.aiintegration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于词典的降级分类器
+ * 用 Aho-Corasick 自动机一次扫描找出文本中所有词条，按标签累加词条权重，得分最高的标签胜出；
+ * 没有命中或最高分不为正时返回默认标签，同分时先登记的标签优先。
+ * 词条可以互相包含，例如“不好”（negative，权重 2）与“好”（positive，权重 1）同时命中时判为 negative。
+ */
+public class LexiconClassifier implements FallbackClassifier {
+
+    private final AhoCorasickMatcher matcher;
+    private final String[] labels;
+    private final int[] termLabels;
+    private final double[] termWeights;
+    private final String defaultLabel;
+
+    private LexiconClassifier(Map<String, Term> terms, List<String> labels, String defaultLabel) {
+        this.matcher = new AhoCorasickMatcher(new ArrayList<>(terms.keySet()));
+        this.labels = labels.toArray(new String[0]);
+        this.termLabels = new int[terms.size()];
+        this.termWeights = new double[terms.size()];
+        int i = 0;
+        for (Term term : terms.values()) {
+            termLabels[i] = term.label;
+            termWeights[i++] = term.weight;
+        }
+        this.defaultLabel = defaultLabel;
+    }
+
+    /**
+     * 内置的小词典，覆盖原有关键词规则并补充了常见的否定说法
+     */
+    public static LexiconClassifier defaults() {
+        return builder()
+            .term("好", "positive", 1).term("棒", "positive", 1).term("喜欢", "positive", 1)
+            .term("不错", "positive", 1).term("满意", "positive", 1).term("推荐", "positive", 1)
+            .term("坏", "negative", 1).term("差", "negative", 1).term("讨厌", "negative", 1)
+            .term("糟糕", "negative", 1).term("失望", "negative", 1).term("垃圾", "negative", 1)
+            .term("不好", "negative", 2).term("不喜欢", "negative", 2).term("不满意", "negative", 2)
+            .term("不推荐", "negative", 2).term("不差", "positive", 2)
+            .build();
+    }
+
+    /**
+     * 从 UTF-8 文本文件加载词典，每行“词条&lt;TAB&gt;标签[&lt;TAB&gt;权重]”，权重缺省为 1；
+     * 空行和 # 开头的行被忽略，重复的词条以最后一次为准
+     */
+    public static LexiconClassifier load(Path file) throws IOException {
+        Builder builder = builder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length < 2 || fields[0].isEmpty()) {
+                    throw new IOException("词典格式错误，第 " + lineNumber + " 行: " + line);
+                }
+                try {
+                    builder.term(fields[0], fields[1].trim(), fields.length > 2 ? Double.parseDouble(fields[2].trim()) : 1);
+                } catch (NumberFormatException e) {
+                    throw new IOException("词典权重不是数字，第 " + lineNumber + " 行: " + line, e);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String classify(String text) {
+        double[] scores = new double[labels.length];
+        matcher.match(text, term -> scores[termLabels[term]] += termWeights[term]);
+        int best = -1;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > 0 && (best < 0 || scores[i] > scores[best])) {
+                best = i;
+            }
+        }
+        return best >= 0 ? labels[best] : defaultLabel;
+    }
+
+    public int getTermCount() {
+        return matcher.getPatternCount();
+    }
+
+    // 构造器模式
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final Map<String, Term> terms = new LinkedHashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private String defaultLabel = "neutral";
+
+        /**
+         * 登记词条；权重可以为负，用于抵消其他词条
+         */
+        public Builder term(String term, String label, double weight) {
+            if (term.isEmpty()) {
+                throw new IllegalArgumentException("词条不能为空");
+            }
+            int index = labels.indexOf(label);
+            if (index < 0) {
+                index = labels.size();
+                labels.add(label);
+            }
+            terms.put(term, new Term(index, weight));
+            return this;
+        }
+
+        /**
+         * 没有命中任何词条时的标签，默认 neutral
+         */
+        public Builder defaultLabel(String defaultLabel) {
+            this.defaultLabel = defaultLabel;
+            return this;
+        }
+
+        public LexiconClassifier build() {
+            return new LexiconClassifier(terms, labels, defaultLabel);
+        }
+    }
+
+    private static final class Term {
+        private final int label;
+        private final double weight;
+
+        Term(int label, double weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+}
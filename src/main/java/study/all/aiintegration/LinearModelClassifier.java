@@ -0,0 +1,128 @@
+package study.all.aiintegration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 词袋线性模型降级分类器
+ * 特征为各词条在文本中的出现次数（由 Aho-Corasick 自动机一次扫描统计），
+ * 每个标签的得分 = 偏置 + Σ 出现次数 × 权重，取得分最高的标签。
+ * 模型通常由离线训练（如对 Python 服务的分类结果做逻辑回归）后导出为文本文件。
+ */
+public class LinearModelClassifier implements FallbackClassifier {
+
+    private final AhoCorasickMatcher matcher;
+    private final String[] labels;
+    private final double[] bias;
+    // 按词条下标连续存放，第 i 个词条对第 j 个标签的权重位于 i * labels.length + j
+    private final double[] weights;
+
+    private LinearModelClassifier(List<String> features, String[] labels, double[] bias, double[] weights) {
+        this.matcher = new AhoCorasickMatcher(features);
+        this.labels = labels;
+        this.bias = bias;
+        this.weights = weights;
+    }
+
+    /**
+     * 从 UTF-8 文本文件加载模型，字段以 TAB 分隔：
+     * <pre>
+     * labels  positive  negative  neutral
+     * bias    0.0       0.0       0.5
+     * 喜欢     1.8       -0.6      -0.4
+     * 不喜欢   -1.5      2.1       -0.2
+     * </pre>
+     * 第一行给出标签，第二行为各标签偏置，其余每行一个特征词及其对各标签的权重；空行和 # 开头的行被忽略
+     */
+    public static LinearModelClassifier load(Path file) throws IOException {
+        String[] labels = null;
+        double[] bias = null;
+        List<String> features = new ArrayList<>();
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (labels == null) {
+                    if (!"labels".equals(fields[0]) || fields.length < 2) {
+                        throw new IOException("模型文件第一行必须是 labels，第 " + lineNumber + " 行");
+                    }
+                    labels = Arrays.copyOfRange(fields, 1, fields.length);
+                } else if (bias == null) {
+                    if (!"bias".equals(fields[0])) {
+                        throw new IOException("模型文件第二行必须是 bias，第 " + lineNumber + " 行");
+                    }
+                    bias = parseRow(fields, labels.length, lineNumber);
+                } else {
+                    features.add(fields[0]);
+                    rows.add(parseRow(fields, labels.length, lineNumber));
+                }
+            }
+        }
+        if (bias == null) {
+            throw new IOException("模型文件缺少 labels 或 bias: " + file);
+        }
+        double[] weights = new double[features.size() * labels.length];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, weights, i * labels.length, labels.length);
+        }
+        try {
+            return new LinearModelClassifier(features, labels, bias, weights);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("模型文件特征词无效: " + e.getMessage(), e);
+        }
+    }
+
+    private static double[] parseRow(String[] fields, int labelCount, int lineNumber) throws IOException {
+        if (fields.length != labelCount + 1) {
+            throw new IOException("模型文件第 " + lineNumber + " 行应有 " + labelCount + " 个权重");
+        }
+        double[] row = new double[labelCount];
+        try {
+            for (int j = 0; j < labelCount; j++) {
+                row[j] = Double.parseDouble(fields[j + 1].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("模型文件权重不是数字，第 " + lineNumber + " 行", e);
+        }
+        return row;
+    }
+
+    @Override
+    public String classify(String text) {
+        double[] scores = bias.clone();
+        int labelCount = labels.length;
+        matcher.match(text, feature -> {
+            int offset = feature * labelCount;
+            for (int j = 0; j < labelCount; j++) {
+                scores[j] += weights[offset + j];
+            }
+        });
+        int best = 0;
+        for (int j = 1; j < labelCount; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        return labels[best];
+    }
+
+    public int getFeatureCount() {
+        return matcher.getPatternCount();
+    }
+
+    public List<String> getLabels() {
+        return List.of(labels);
+    }
+}
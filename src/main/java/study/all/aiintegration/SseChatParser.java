@@ -0,0 +1,209 @@
+package study.all.aiintegration;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 流式聊天响应（Server-Sent Events）的逐行解析器
+ * token 事件：{"token": "..."}，逐个交给 onToken；
+ * done 事件：{"reply": "...", "confidence": 0.8}，据此组装最终的 ChatResponse；
+ * error 事件：{"error": "..."}，以异常结束。
+ *
+ * 每处理完一行才请求下一行；指定 tokenDemand 时，没有下游需求就暂停读取，直到 {@link #resume()}。
+ */
+final class SseChatParser implements Flow.Subscriber<String> {
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> onToken;
+    private final AtomicLong tokenDemand;
+    private final AtomicBoolean parked = new AtomicBoolean();
+    private final CompletableFuture<AIIntegrationService.ChatResponse> result = new CompletableFuture<>();
+
+    private final StringBuilder reply = new StringBuilder();
+    private final StringBuilder data = new StringBuilder();
+    private String event;
+    private volatile int tokenCount;
+    private volatile Flow.Subscription subscription;
+
+    /**
+     * @param tokenDemand 下游尚未满足的 token 请求量，为 null 时不限制读取速度
+     */
+    SseChatParser(ObjectMapper objectMapper, Consumer<String> onToken, AtomicLong tokenDemand) {
+        this.objectMapper = objectMapper;
+        this.onToken = onToken;
+        this.tokenDemand = tokenDemand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        requestNextLine();
+    }
+
+    @Override
+    public void onNext(String line) {
+        try {
+            processLine(line);
+        } catch (Exception e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        requestNextLine();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (!result.isDone()) {
+            result.completeExceptionally(new IOException("聊天流在 done 事件之前结束"));
+        }
+    }
+
+    private void processLine(String line) throws IOException {
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        if (line.isEmpty()) {
+            dispatch();
+        } else if (line.startsWith("data:")) {
+            if (data.length() > 0) {
+                data.append('\n');
+            }
+            data.append(fieldValue(line, 5));
+        } else if (line.startsWith("event:")) {
+            event = fieldValue(line, 6);
+        }
+        // 以冒号开头的注释行（心跳）和其他字段忽略
+    }
+
+    private static String fieldValue(String line, int prefixLength) {
+        return line.length() > prefixLength && line.charAt(prefixLength) == ' '
+            ? line.substring(prefixLength + 1)
+            : line.substring(prefixLength);
+    }
+
+    private void dispatch() throws IOException {
+        String type = event == null ? "token" : event;
+        String payload = data.toString();
+        event = null;
+        data.setLength(0);
+        if (payload.isEmpty() || result.isDone()) {
+            return;
+        }
+
+        if ("token".equals(type)) {
+            String token = readTextField(payload, "token");
+            if (token != null && !token.isEmpty()) {
+                reply.append(token);
+                tokenCount++;
+                if (tokenDemand != null) {
+                    tokenDemand.decrementAndGet();
+                }
+                onToken.accept(token);
+            }
+        } else if ("done".equals(type)) {
+            AIIntegrationService.ChatResponse done;
+            try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+                parser.nextToken();
+                done = AIApiModels.parseChatResponse(parser);
+            }
+            result.complete(done.getResponse() != null ? done : AIIntegrationService.ChatResponse.builder()
+                .response(reply.toString())
+                .confidence(done.getConfidence())
+                .build());
+        } else if ("error".equals(type)) {
+            throw new IOException("AI服务流式聊天出错: " + readTextField(payload, "error"));
+        }
+    }
+
+    /**
+     * 流式读取单层 JSON 对象中的一个文本字段，其余字段跳过
+     */
+    private String readTextField(String json, String name) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("SSE 数据不是JSON对象: " + json);
+            }
+            String value = null;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                if (name.equals(field) && token == JsonToken.VALUE_STRING) {
+                    value = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return value;
+        }
+    }
+
+    private void requestNextLine() {
+        Flow.Subscription s = subscription;
+        if (s == null) {
+            return;
+        }
+        // done 之后不再产生 token，把剩余内容读完以便连接复用
+        if (tokenDemand == null || result.isDone() || tokenDemand.get() > 0) {
+            s.request(1);
+            return;
+        }
+        parked.set(true);
+        if (tokenDemand.get() > 0 && parked.compareAndSet(true, false)) {
+            s.request(1);
+        }
+    }
+
+    /**
+     * 下游增加了需求，恢复因无需求而暂停的读取
+     */
+    void resume() {
+        Flow.Subscription s = subscription;
+        if (s != null && parked.compareAndSet(true, false)) {
+            s.request(1);
+        }
+    }
+
+    /**
+     * 请求在进入响应体之前就失败（连接失败、非 2xx 等）
+     */
+    void fail(Throwable error) {
+        result.completeExceptionally(error);
+    }
+
+    void cancel() {
+        Flow.Subscription s = subscription;
+        if (s != null) {
+            s.cancel();
+        }
+        result.cancel(false);
+    }
+
+    CompletableFuture<AIIntegrationService.ChatResponse> result() {
+        return result;
+    }
+
+    int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * 已收到的部分回复，仅在结果完成后读取
+     */
+    String getPartialReply() {
+        return reply.toString();
+    }
+}
@@ -13,11 +13,21 @@ import java.util.concurrent.locks.ReentrantLock;
 public class ProducerConsumerDemo {
     
     private final Queue<Integer> buffer = new LinkedList<>();
-    private final int capacity = 5;
+    private final int capacity;
+    private final boolean verbose; // 是否打印过程日志，基准测试时关闭
     private final Lock lock = new ReentrantLock();
     private final Condition notFull = lock.newCondition();
     private final Condition notEmpty = lock.newCondition();
     
+    public ProducerConsumerDemo() {
+        this(5, true);
+    }
+    
+    public ProducerConsumerDemo(int capacity, boolean verbose) {
+        this.capacity = capacity;
+        this.verbose = verbose;
+    }
+    
     public static void main(String[] args) {
         System.out.println("=== 生产者-消费者模式演示 ===\n");
         
@@ -39,6 +49,61 @@ public class ProducerConsumerDemo {
         }
     }
     
+    /**
+     * 放入一个产品，缓冲区满时在notFull条件上等待
+     */
+    public void put(int product) throws InterruptedException {
+        lock.lock();
+        try {
+            // 如果缓冲区满了，等待消费者消费
+            while (buffer.size() == capacity) {
+                if (verbose) {
+                    System.out.println("缓冲区已满，生产者等待...");
+                }
+                notFull.await();
+            }
+            
+            buffer.offer(product);
+            if (verbose) {
+                System.out.println(Thread.currentThread().getName() + 
+                    " 生产了产品: " + product + ", 缓冲区大小: " + buffer.size());
+            }
+            
+            // 通知消费者可以消费了
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 取出一个产品，缓冲区空时在notEmpty条件上等待
+     */
+    public int take() throws InterruptedException {
+        lock.lock();
+        try {
+            // 如果缓冲区空了，等待生产者生产
+            while (buffer.isEmpty()) {
+                if (verbose) {
+                    System.out.println("缓冲区为空，消费者等待...");
+                }
+                notEmpty.await();
+            }
+            
+            int product = buffer.poll();
+            if (verbose) {
+                System.out.println("\t\t\t" + Thread.currentThread().getName() + 
+                    " 消费了产品: " + product + ", 缓冲区大小: " + buffer.size());
+            }
+            
+            // 通知生产者可以继续生产了
+            notFull.signal();
+            return product;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     /**
      * 生产者线程
      */
@@ -51,19 +116,8 @@ public class ProducerConsumerDemo {
                 while (!Thread.currentThread().isInterrupted()) {
                     lock.lock();
                     try {
-                        // 如果缓冲区满了，等待消费者消费
-                        while (buffer.size() == capacity) {
-                            System.out.println("缓冲区已满，生产者等待...");
-                            notFull.await();
-                        }
-                        
-                        int product = ++productCount;
-                        buffer.offer(product);
-                        System.out.println(Thread.currentThread().getName() + 
-                            " 生产了产品: " + product + ", 缓冲区大小: " + buffer.size());
-                        
-                        // 通知消费者可以消费了
-                        notEmpty.signal();
+                        // 可重入锁：put内部再次加锁不会阻塞
+                        put(++productCount);
                         
                         Thread.sleep(1000); // 模拟生产时间
                         
@@ -88,18 +142,8 @@ public class ProducerConsumerDemo {
                 while (!Thread.currentThread().isInterrupted()) {
                     lock.lock();
                     try {
-                        // 如果缓冲区空了，等待生产者生产
-                        while (buffer.isEmpty()) {
-                            System.out.println("缓冲区为空，消费者等待...");
-                            notEmpty.await();
-                        }
-                        
-                        int product = buffer.poll();
-                        System.out.println("\t\t\t" + Thread.currentThread().getName() + 
-                            " 消费了产品: " + product + ", 缓冲区大小: " + buffer.size());
-                        
-                        // 通知生产者可以继续生产了
-                        notFull.signal();
+                        // 可重入锁：take内部再次加锁不会阻塞
+                        take();
                         
                         Thread.sleep(1500); // 模拟消费时间
                         
@@ -28,7 +28,10 @@ public class AllImplementationsRunner {
         System.out.println("\n5. 运行超时机制实现:");
         runTimeoutImplementation();
         
-        System.out.println("\n6. 查看完整比较信息:");
+        System.out.println("\n6. 运行无锁环形缓冲区实现:");
+        runRingBufferImplementation();
+        
+        System.out.println("\n7. 查看完整比较信息:");
         showCompleteComparison();
     }
     
@@ -63,6 +66,12 @@ public class AllImplementationsRunner {
         System.out.println("--- 超时机制实现结束 ---\n");
     }
     
+    private static void runRingBufferImplementation() {
+        System.out.println("--- 环形缓冲区实现开始 ---");
+        RingBufferProducerConsumer.main(new String[0]);
+        System.out.println("--- 环形缓冲区实现结束 ---\n");
+    }
+    
     private static void showCompleteComparison() {
         System.out.println("--- 完整比较信息 ---");
         CompleteProducerConsumerComparison.main(new String[0]);
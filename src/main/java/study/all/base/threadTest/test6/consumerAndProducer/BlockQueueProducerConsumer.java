@@ -10,9 +10,16 @@ import java.util.concurrent.LinkedBlockingQueue;
 public class BlockQueueProducerConsumer {
     
     private final BlockingQueue<Integer> buffer;
-    private final int capacity = 5;
+    private final int capacity;
+    private final boolean verbose; // 是否打印过程日志，基准测试时关闭
     
     public BlockQueueProducerConsumer() {
+        this(5, true);
+    }
+    
+    public BlockQueueProducerConsumer(int capacity, boolean verbose) {
+        this.capacity = capacity;
+        this.verbose = verbose;
         // 使用LinkedBlockingQueue作为缓冲区
         this.buffer = new LinkedBlockingQueue<>(capacity);
     }
@@ -54,8 +61,10 @@ public class BlockQueueProducerConsumer {
     private void produce(int producerId, int item) throws InterruptedException {
         // put()方法会自动阻塞直到有空间
         buffer.put(item);
-        System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
-                          ", 缓冲区大小: " + buffer.size());
+        if (verbose) {
+            System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
+                              ", 缓冲区大小: " + buffer.size());
+        }
     }
     
     /**
@@ -65,11 +74,27 @@ public class BlockQueueProducerConsumer {
     private int consume(int consumerId) throws InterruptedException {
         // take()方法会自动阻塞直到有元素可取
         int item = buffer.take();
-        System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
-                          ", 缓冲区大小: " + buffer.size());
+        if (verbose) {
+            System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
+                              ", 缓冲区大小: " + buffer.size());
+        }
         return item;
     }
     
+    /**
+     * 放入一个产品（供基准测试直接驱动缓冲区）
+     */
+    void put(int item) throws InterruptedException {
+        produce(0, item);
+    }
+    
+    /**
+     * 取出一个产品（供基准测试直接驱动缓冲区）
+     */
+    int take() throws InterruptedException {
+        return consume(0);
+    }
+    
     /**
      * 生产者线程类
      */
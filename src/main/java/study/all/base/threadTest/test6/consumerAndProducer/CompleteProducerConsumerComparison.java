@@ -48,6 +48,11 @@ public class CompleteProducerConsumerComparison {
         System.out.println("   • 原理：使用ExecutorService和CompletionService");
         System.out.println("   • 优点：现代化，易于扩展");
         System.out.println("   • 缺点：学习成本较高\n");
+        
+        System.out.println("7. 无锁环形缓冲区(Ring Buffer)实现");
+        System.out.println("   • 原理：预分配2的幂次数组 + CAS抢占序号 + 可插拔等待策略");
+        System.out.println("   • 优点：无锁、放入取出零分配，支持批量drainTo");
+        System.out.println("   • 缺点：实现复杂，忙等策略会占用CPU\n");
     }
     
     private static void showComparisonMatrix() {
@@ -62,7 +67,9 @@ public class CompleteProducerConsumerComparison {
         System.out.println("│ 安全性      │ ★★★☆☆   │ ★★★☆☆   │ ★★★★☆   │ ★★★★★     │ ★★★★☆   │ ★★★★☆     │");
         System.out.println("│ 推荐指数    │ ★★★☆☆   │ ★★☆☆☆   │ ★★★☆☆   │ ★★★★★     │ ★★★★☆   │ ★★★☆☆     │");
         System.out.println("└─────────────┴──────────┴──────────┴──────────┴────────────┴──────────┴────────────┘");
-        System.out.println("(评分标准：★★★★★ 最好  ★☆☆☆☆ 最差)\n");
+        System.out.println("(评分标准：★★★★★ 最好  ★☆☆☆☆ 最差)");
+        System.out.println("(性能一栏为经验评分，实测吞吐量、p50/p99交接延迟和分配率请运行");
+        System.out.println(" src/jmh 下的 ProducerConsumerBenchmarkRunner)\n");
     }
     
     private static void provideSelectionGuidance() {
@@ -96,6 +103,11 @@ public class CompleteProducerConsumerComparison {
         System.out.println("🎯 现代化开发：函数式实现");
         System.out.println("   • 理由：符合现代编程范式");
         System.out.println("   • 场景：微服务、异步处理");
-        System.out.println("   • 示例：CompletableFuture、ExecutorService\n");
+        System.out.println("   • 示例：CompletableFuture、ExecutorService\n\n");
+        
+        System.out.println("🎯 极致吞吐/低延迟：无锁环形缓冲区实现");
+        System.out.println("   • 理由：没有锁竞争和对象分配");
+        System.out.println("   • 场景：行情、日志、事件总线等高频交接");
+        System.out.println("   • 示例：IntRingBuffer + busySpin/yielding/parking等待策略\n");
     }
 }
\ No newline at end of file
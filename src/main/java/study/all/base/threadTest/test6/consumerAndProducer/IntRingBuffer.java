@@ -0,0 +1,223 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * 无锁有界环形缓冲区（int 特化）
+ * 预分配 2 的幂次容量的数组，放入/取出都不创建对象：
+ * 每个槽位带一个序号，生产者和消费者通过 CAS 抢占位置，再用序号发布/回收槽位。
+ * 单生产者版本省去生产端 CAS；消费端始终支持多消费者。
+ * head/tail 计数器之间做了缓存行填充，避免伪共享。
+ */
+public final class IntRingBuffer extends RingBufferHeadPad {
+
+    private final int capacity;
+    private final int mask;
+    private final int[] items;
+    // 槽位序号：等于位置时可写，等于位置+1时可读
+    private final AtomicLongArray sequences;
+    private final boolean multiProducer;
+    private final RingBufferWaitStrategy waitStrategy;
+
+    private IntRingBuffer(int requestedCapacity, boolean multiProducer, RingBufferWaitStrategy waitStrategy) {
+        if (requestedCapacity <= 0 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("容量必须在 1 到 2^30 之间: " + requestedCapacity);
+        }
+        // 容量为1时"可读"和"下一圈可写"的序号相同，至少需要2个槽位
+        this.capacity = Math.max(2, roundUpToPowerOfTwo(requestedCapacity));
+        this.mask = capacity - 1;
+        this.items = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.multiProducer = multiProducer;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 创建单生产者缓冲区，容量向上取整为 2 的幂次（至少为 2），只允许一个线程调用 put/offer
+     */
+    public static IntRingBuffer singleProducer(int capacity, RingBufferWaitStrategy waitStrategy) {
+        return new IntRingBuffer(capacity, false, waitStrategy);
+    }
+
+    /**
+     * 创建多生产者缓冲区
+     */
+    public static IntRingBuffer multiProducer(int capacity, RingBufferWaitStrategy waitStrategy) {
+        return new IntRingBuffer(capacity, true, waitStrategy);
+    }
+
+    /**
+     * 尝试放入，缓冲区满时立即返回 false
+     */
+    public boolean offer(int item) {
+        long pos = (long) TAIL.getAcquire(this);
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.getAcquire(index) - pos;
+            if (diff == 0) {
+                if (!multiProducer) {
+                    TAIL.setRelease(this, pos + 1);
+                    break;
+                }
+                if (TAIL.compareAndSet(this, pos, pos + 1)) {
+                    break;
+                }
+                pos = (long) TAIL.getAcquire(this);
+            } else if (diff < 0) {
+                // 该槽位还未被消费者回收：缓冲区已满
+                return false;
+            } else {
+                // 被其他生产者抢先，重新读取位置
+                pos = (long) TAIL.getAcquire(this);
+            }
+        }
+        int index = (int) pos & mask;
+        items[index] = item;
+        sequences.setRelease(index, pos + 1);
+        return true;
+    }
+
+    /**
+     * 放入，缓冲区满时按等待策略等待
+     */
+    public void put(int item) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(item)) {
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    /**
+     * 取出，缓冲区空时按等待策略等待
+     */
+    public int take() throws InterruptedException {
+        int attempt = 0;
+        long pos;
+        while ((pos = claimHead()) < 0) {
+            waitStrategy.idle(attempt++);
+        }
+        return consumeAt(pos);
+    }
+
+    /**
+     * 批量取出已有的元素，不等待
+     * @return 实际取出的数量
+     */
+    public int drainTo(int[] target, int offset, int maxItems) {
+        int limit = Math.min(maxItems, target.length - offset);
+        int count = 0;
+        long pos;
+        while (count < limit && (pos = claimHead()) >= 0) {
+            target[offset + count++] = consumeAt(pos);
+        }
+        return count;
+    }
+
+    /**
+     * 批量取出已有的元素交给回调，不等待
+     * @return 实际取出的数量
+     */
+    public int drainTo(IntConsumer consumer, int maxItems) {
+        int count = 0;
+        long pos;
+        while (count < maxItems && (pos = claimHead()) >= 0) {
+            consumer.accept(consumeAt(pos));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 抢占一个可读位置，缓冲区为空时返回 -1
+     */
+    private long claimHead() {
+        long pos = (long) HEAD.getAcquire(this);
+        while (true) {
+            long diff = sequences.getAcquire((int) pos & mask) - (pos + 1);
+            if (diff == 0) {
+                if (HEAD.compareAndSet(this, pos, pos + 1)) {
+                    return pos;
+                }
+                pos = (long) HEAD.getAcquire(this);
+            } else if (diff < 0) {
+                return -1;
+            } else {
+                pos = (long) HEAD.getAcquire(this);
+            }
+        }
+    }
+
+    /**
+     * 读取已抢占位置的元素并把槽位交还给下一圈的生产者
+     */
+    private int consumeAt(long pos) {
+        int index = (int) pos & mask;
+        int item = items[index];
+        sequences.setRelease(index, pos + capacity);
+        return item;
+    }
+
+    /**
+     * 当前元素数量（并发下为近似值）
+     */
+    public int size() {
+        long head = (long) HEAD.getAcquire(this);
+        long tail = (long) TAIL.getAcquire(this);
+        return (int) Math.max(0, Math.min(capacity, tail - head));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isMultiProducer() {
+        return multiProducer;
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(RingBufferHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(RingBufferTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
+
+/**
+ * 以下几个类通过继承固定字段布局：填充 - tail - 填充 - head - 填充，
+ * 保证生产端和消费端计数器不在同一缓存行
+ */
+abstract class RingBufferTailPad {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class RingBufferTail extends RingBufferTailPad {
+    volatile long tail;
+}
+
+abstract class RingBufferMidPad extends RingBufferTail {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingBufferHead extends RingBufferMidPad {
+    volatile long head;
+}
+
+abstract class RingBufferHeadPad extends RingBufferHead {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
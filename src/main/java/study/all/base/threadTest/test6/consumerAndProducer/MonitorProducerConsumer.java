@@ -10,7 +10,17 @@ import java.util.Queue;
 public class MonitorProducerConsumer {
     
     private final Queue<Integer> buffer = new LinkedList<>();
-    private final int capacity = 5;
+    private final int capacity;
+    private final boolean verbose; // 是否打印过程日志，基准测试时关闭
+    
+    public MonitorProducerConsumer() {
+        this(5, true);
+    }
+    
+    public MonitorProducerConsumer(int capacity, boolean verbose) {
+        this.capacity = capacity;
+        this.verbose = verbose;
+    }
     
     public static void main(String[] args) {
         System.out.println("=== 管程(Monitor)实现的生产者-消费者 ===\n");
@@ -48,14 +58,18 @@ public class MonitorProducerConsumer {
     private synchronized void produce(int producerId, int item) throws InterruptedException {
         // 等待缓冲区有空间
         while (buffer.size() == capacity) {
-            System.out.println("生产者-" + producerId + " 发现缓冲区已满，等待...");
+            if (verbose) {
+                System.out.println("生产者-" + producerId + " 发现缓冲区已满，等待...");
+            }
             wait(); // 释放锁并等待
         }
         
         // 生产产品
         buffer.offer(item);
-        System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
-                          ", 缓冲区大小: " + buffer.size());
+        if (verbose) {
+            System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
+                              ", 缓冲区大小: " + buffer.size());
+        }
         
         // 通知等待的消费者
         notifyAll();
@@ -67,20 +81,38 @@ public class MonitorProducerConsumer {
     private synchronized int consume(int consumerId) throws InterruptedException {
         // 等待缓冲区有产品
         while (buffer.isEmpty()) {
-            System.out.println("\t\t\t消费者-" + consumerId + " 发现缓冲区为空，等待...");
+            if (verbose) {
+                System.out.println("\t\t\t消费者-" + consumerId + " 发现缓冲区为空，等待...");
+            }
             wait(); // 释放锁并等待
         }
         
         // 消费产品
         int item = buffer.poll();
-        System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
-                          ", 缓冲区大小: " + buffer.size());
+        if (verbose) {
+            System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
+                              ", 缓冲区大小: " + buffer.size());
+        }
         
         // 通知等待的生产者
         notifyAll();
         return item;
     }
     
+    /**
+     * 放入一个产品（供基准测试直接驱动缓冲区）
+     */
+    void put(int item) throws InterruptedException {
+        produce(0, item);
+    }
+    
+    /**
+     * 取出一个产品（供基准测试直接驱动缓冲区）
+     */
+    int take() throws InterruptedException {
+        return consume(0);
+    }
+    
     /**
      * 生产者线程类
      */
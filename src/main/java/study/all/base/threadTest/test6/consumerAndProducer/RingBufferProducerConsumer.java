@@ -0,0 +1,152 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+/**
+ * 基于无锁环形缓冲区(Ring Buffer)的生产者-消费者实现
+ * 预分配数组 + CAS抢占序号，放入和取出都不加锁、不创建对象
+ */
+public class RingBufferProducerConsumer {
+    
+    private final IntRingBuffer buffer;
+    private final int capacity;
+    private final boolean verbose; // 是否打印过程日志，基准测试时关闭
+    
+    public RingBufferProducerConsumer() {
+        // 容量会向上取整为2的幂次，这里使用8（其他实现为5）
+        this(8, true, true, RingBufferWaitStrategy.parking());
+    }
+    
+    public RingBufferProducerConsumer(int capacity, boolean multiProducer, boolean verbose,
+                                      RingBufferWaitStrategy waitStrategy) {
+        this.buffer = multiProducer
+            ? IntRingBuffer.multiProducer(capacity, waitStrategy)
+            : IntRingBuffer.singleProducer(capacity, waitStrategy);
+        this.capacity = buffer.capacity();
+        this.verbose = verbose;
+    }
+    
+    public static void main(String[] args) {
+        System.out.println("=== 无锁环形缓冲区(Ring Buffer)实现的生产者-消费者 ===\n");
+        
+        RingBufferProducerConsumer ringPC = new RingBufferProducerConsumer();
+        System.out.println("缓冲区容量: " + ringPC.capacity + "\n");
+        
+        // 创建生产者和消费者线程
+        Thread producer1 = new Thread(ringPC.new Producer(1), "生产者-R1");
+        Thread producer2 = new Thread(ringPC.new Producer(2), "生产者-R2");
+        Thread consumer1 = new Thread(ringPC.new Consumer(1), "消费者-R1");
+        Thread consumer2 = new Thread(ringPC.new Consumer(2), "消费者-R2");
+        
+        // 启动所有线程
+        producer1.start();
+        producer2.start();
+        consumer1.start();
+        consumer2.start();
+        
+        // 运行一段时间后停止
+        try {
+            Thread.sleep(15000);
+            System.out.println("\n--- 停止所有线程 ---");
+            producer1.interrupt();
+            producer2.interrupt();
+            consumer1.interrupt();
+            consumer2.interrupt();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 无锁生产方法
+     * 缓冲区满时按等待策略自旋/让出/休眠，而不是阻塞在锁上
+     */
+    private void produce(int producerId, int item) throws InterruptedException {
+        buffer.put(item);
+        if (verbose) {
+            System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
+                              ", 缓冲区大小: " + buffer.size());
+        }
+    }
+    
+    /**
+     * 无锁消费方法
+     */
+    private int consume(int consumerId) throws InterruptedException {
+        int item = buffer.take();
+        if (verbose) {
+            System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
+                              ", 缓冲区大小: " + buffer.size());
+        }
+        return item;
+    }
+    
+    /**
+     * 放入一个产品（供基准测试直接驱动缓冲区）
+     */
+    void put(int item) throws InterruptedException {
+        produce(0, item);
+    }
+    
+    /**
+     * 取出一个产品（供基准测试直接驱动缓冲区）
+     */
+    int take() throws InterruptedException {
+        return consume(0);
+    }
+    
+    /**
+     * 批量取出当前已有的产品，不等待
+     */
+    int drainTo(int[] target, int maxItems) {
+        return buffer.drainTo(target, 0, maxItems);
+    }
+    
+    /**
+     * 生产者线程类
+     */
+    class Producer implements Runnable {
+        private int producerId;
+        private int itemCount = 0;
+        
+        public Producer(int producerId) {
+            this.producerId = producerId;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    int item = ++itemCount;
+                    produce(producerId, item);
+                    Thread.sleep((long) (Math.random() * 1000) + 500); // 随机生产间隔
+                }
+            } catch (InterruptedException e) {
+                System.out.println("生产者-" + producerId + " 被中断");
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * 消费者线程类
+     */
+    class Consumer implements Runnable {
+        private int consumerId;
+        
+        public Consumer(int consumerId) {
+            this.consumerId = consumerId;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    consume(consumerId);
+                    Thread.sleep((long) (Math.random() * 1500) + 800); // 随机消费间隔
+                }
+            } catch (InterruptedException e) {
+                System.out.println("消费者-" + consumerId + " 被中断");
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package study.all.base.threadTest.test6.consumerAndProducer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 环形缓冲区的等待策略
+ * 缓冲区满（生产者）或空（消费者）时如何等待，在延迟和 CPU 占用之间取舍
+ */
+public interface RingBufferWaitStrategy {
+
+    /**
+     * 等待一次后返回，由调用方重试
+     * @param attempt 本次等待前已连续失败的次数
+     * @throws InterruptedException 线程被中断时抛出，便于像其他实现一样通过 interrupt 停止
+     */
+    void idle(int attempt) throws InterruptedException;
+
+    /**
+     * 忙等：延迟最低，但会占满一个 CPU 核心
+     */
+    static RingBufferWaitStrategy busySpin() {
+        return attempt -> {
+            checkInterrupted();
+            Thread.onSpinWait();
+        };
+    }
+
+    /**
+     * 先自旋一段时间，之后让出 CPU
+     */
+    static RingBufferWaitStrategy yielding() {
+        return attempt -> {
+            checkInterrupted();
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        };
+    }
+
+    /**
+     * 自旋、让出后进入定时休眠，休眠时间逐步加倍到上限，适合空闲时间长的场景
+     */
+    static RingBufferWaitStrategy parking(long maxParkNanos) {
+        return attempt -> {
+            checkInterrupted();
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(attempt - 200, 20);
+                LockSupport.parkNanos(Math.min(maxParkNanos, 1000L << shift));
+            }
+        };
+    }
+
+    static RingBufferWaitStrategy parking() {
+        return parking(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
@@ -11,7 +11,8 @@ import java.util.concurrent.Semaphore;
 public class SemaphoreProducerConsumer {
     
     private final Queue<Integer> buffer = new LinkedList<>();
-    private final int capacity = 5;
+    private final int capacity;
+    private final boolean verbose; // 是否打印过程日志，基准测试时关闭
     
     // 信号量定义
     private final Semaphore empty;      // 表示空槽位数量
@@ -19,6 +20,12 @@ public class SemaphoreProducerConsumer {
     private final Semaphore mutex;      // 互斥访问缓冲区
     
     public SemaphoreProducerConsumer() {
+        this(5, true);
+    }
+    
+    public SemaphoreProducerConsumer(int capacity, boolean verbose) {
+        this.capacity = capacity;
+        this.verbose = verbose;
         this.empty = new Semaphore(capacity);  // 初始时所有槽位都为空
         this.full = new Semaphore(0);          // 初始时没有已填充的槽位
         this.mutex = new Semaphore(1);         // 互斥锁，初始可用
@@ -71,8 +78,10 @@ public class SemaphoreProducerConsumer {
         try {
             // 临界区：生产产品
             buffer.offer(item);
-            System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
-                              ", 缓冲区大小: " + buffer.size());
+            if (verbose) {
+                System.out.println("生产者-" + producerId + " 生产了产品: " + item + 
+                                  ", 缓冲区大小: " + buffer.size());
+            }
         } finally {
             // V操作：释放互斥锁
             mutex.release();
@@ -99,8 +108,10 @@ public class SemaphoreProducerConsumer {
         try {
             // 临界区：消费产品
             int item = buffer.poll();
-            System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
-                              ", 缓冲区大小: " + buffer.size());
+            if (verbose) {
+                System.out.println("\t\t\t消费者-" + consumerId + " 消费了产品: " + item + 
+                                  ", 缓冲区大小: " + buffer.size());
+            }
             return item;
         } finally {
             // V操作：释放互斥锁
@@ -110,6 +121,20 @@ public class SemaphoreProducerConsumer {
         }
     }
     
+    /**
+     * 放入一个产品（供基准测试直接驱动缓冲区）
+     */
+    void put(int item) throws InterruptedException {
+        produce(0, item);
+    }
+    
+    /**
+     * 取出一个产品（供基准测试直接驱动缓冲区）
+     */
+    int take() throws InterruptedException {
+        return consume(0);
+    }
+    
     /**
      * 生产者线程类
      */
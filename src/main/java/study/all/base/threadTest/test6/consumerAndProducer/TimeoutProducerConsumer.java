@@ -11,10 +11,17 @@ import java.util.concurrent.TimeUnit;
 public class TimeoutProducerConsumer {
     
     private final BlockingQueue<Integer> buffer;
-    private final int capacity = 5;
+    private final int capacity;
+    private final boolean verbose; // 是否打印过程日志，基准测试时关闭
     private volatile boolean shutdown = false; // 优雅关闭标志
     
     public TimeoutProducerConsumer() {
+        this(5, true);
+    }
+    
+    public TimeoutProducerConsumer(int capacity, boolean verbose) {
+        this.capacity = capacity;
+        this.verbose = verbose;
         this.buffer = new ArrayBlockingQueue<>(capacity);
     }
     
@@ -58,9 +65,12 @@ public class TimeoutProducerConsumer {
     /**
      * 带超时的生产方法
      */
-    private boolean produceWithTimeout(int item, long timeout, TimeUnit unit) throws InterruptedException {
+    boolean produceWithTimeout(int item, long timeout, TimeUnit unit) throws InterruptedException {
         // offer()方法支持超时，不会无限阻塞
         boolean success = buffer.offer(item, timeout, unit);
+        if (!verbose) {
+            return success;
+        }
         if (success) {
             System.out.println("生产者生产了产品: " + item + ", 缓冲区大小: " + buffer.size());
         } else {
@@ -72,9 +82,12 @@ public class TimeoutProducerConsumer {
     /**
      * 带超时的消费方法
      */
-    private Integer consumeWithTimeout(long timeout, TimeUnit unit) throws InterruptedException {
+    Integer consumeWithTimeout(long timeout, TimeUnit unit) throws InterruptedException {
         // poll()方法支持超时，不会无限阻塞
         Integer item = buffer.poll(timeout, unit);
+        if (!verbose) {
+            return item;
+        }
         if (item != null) {
             System.out.println("\t\t\t消费者消费了产品: " + item + ", 缓冲区大小: " + buffer.size());
         } else {
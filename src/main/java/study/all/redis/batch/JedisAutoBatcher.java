@@ -0,0 +1,230 @@
+package study.all.redis.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Jedis 自动批处理执行器
+ * 收集多个调用线程提交的命令，按批大小或微秒级截止时间统一通过 Pipeline 发送，
+ * 每条命令对应一个 CompletableFuture，调用方无需自己管理 Pipeline 对象
+ */
+public class JedisAutoBatcher implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(JedisAutoBatcher.class);
+
+    // 默认参数
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    private static final long DEFAULT_LINGER_MICROS = 200;
+    private static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+    private final JedisPool jedisPool;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PendingCommand<?>> queue;
+    private final Thread flusher;
+    private volatile boolean closed = false;
+
+    public JedisAutoBatcher(JedisPool jedisPool) {
+        this(jedisPool, DEFAULT_MAX_BATCH_SIZE, DEFAULT_LINGER_MICROS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param jedisPool     连接池
+     * @param maxBatchSize  单个 Pipeline 最多包含的命令数
+     * @param lingerMicros  第一条命令入队后最多等待多少微秒再发送
+     * @param queueCapacity 待发送命令队列容量，队列满时提交方阻塞（背压）
+     */
+    public JedisAutoBatcher(JedisPool jedisPool, int maxBatchSize, long lingerMicros, int queueCapacity) {
+        if (maxBatchSize <= 0 || lingerMicros < 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("批大小、等待时间和队列容量必须为正数");
+        }
+        this.jedisPool = jedisPool;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flusher = new Thread(this::flushLoop, "jedis-auto-batcher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 提交任意 Pipeline 命令
+     * @param command 在 Pipeline 上登记命令并返回其 Response
+     * @return 命令执行结果的 Future
+     */
+    public <T> CompletableFuture<T> submit(Function<Pipeline, Response<T>> command) {
+        if (closed) {
+            throw new RejectedExecutionException("JedisAutoBatcher 已关闭");
+        }
+        PendingCommand<T> pending = new PendingCommand<>(command);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // 与 close 并发时命令可能在最后一次清空队列之后才入队；谁从队列里移除它谁负责完成 Future
+        if (closed && queue.remove(pending)) {
+            pending.future.completeExceptionally(new RejectedExecutionException("JedisAutoBatcher 已关闭"));
+        }
+        return pending.future;
+    }
+
+    public CompletableFuture<String> set(String key, String value) {
+        return submit(p -> p.set(key, value));
+    }
+
+    public CompletableFuture<Long> lpush(String key, String... values) {
+        return submit(p -> p.lpush(key, values));
+    }
+
+    public CompletableFuture<String> ltrim(String key, long start, long stop) {
+        return submit(p -> p.ltrim(key, start, stop));
+    }
+
+    public CompletableFuture<Double> zincrby(String key, double increment, String member) {
+        return submit(p -> p.zincrby(key, increment, member));
+    }
+
+    public CompletableFuture<Boolean> setbit(String key, long offset, boolean value) {
+        return submit(p -> p.setbit(key, offset, value));
+    }
+
+    public CompletableFuture<Boolean> getbit(String key, long offset) {
+        return submit(p -> p.getbit(key, offset));
+    }
+
+    /**
+     * 后台刷新线程：等待第一条命令，然后在截止时间内尽量凑满一批
+     */
+    private void flushLoop() {
+        List<PendingCommand<?>> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingCommand<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    // 先无等待地批量取出已有命令
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingCommand<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                executeBatch(batch);
+            } catch (InterruptedException e) {
+                if (!closed) {
+                    logger.warn("自动批处理线程被中断");
+                }
+                failAll(batch, e);
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 通过一个 Pipeline 执行整批命令，并逐条完成 Future
+     */
+    private void executeBatch(List<PendingCommand<?>> batch) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (PendingCommand<?> pending : batch) {
+                pending.register(pipeline);
+            }
+            pipeline.sync();
+        } catch (Exception e) {
+            logger.error("批量执行 {} 条命令失败", batch.size(), e);
+            failAll(batch, e);
+            return;
+        }
+        for (PendingCommand<?> pending : batch) {
+            pending.complete();
+        }
+    }
+
+    private void failAll(List<PendingCommand<?>> batch, Throwable cause) {
+        for (PendingCommand<?> pending : batch) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 关闭执行器，已提交的命令会在关闭前发送完毕
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            flusher.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+        }
+        PendingCommand<?> left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(new RejectedExecutionException("JedisAutoBatcher 已关闭"));
+        }
+    }
+
+    /**
+     * 待执行命令
+     */
+    private static final class PendingCommand<T> {
+        private final Function<Pipeline, Response<T>> command;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private Response<T> response;
+        private RuntimeException registerError;
+
+        PendingCommand(Function<Pipeline, Response<T>> command) {
+            this.command = command;
+        }
+
+        void register(Pipeline pipeline) {
+            try {
+                response = command.apply(pipeline);
+            } catch (RuntimeException e) {
+                registerError = e;
+            }
+        }
+
+        void complete() {
+            if (registerError != null) {
+                future.completeExceptionally(registerError);
+                return;
+            }
+            try {
+                // 单条命令出错（如类型不匹配）只影响自己的 Future
+                future.complete(response.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package study.all.redis.checkin;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.args.BitOP;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 签到统计
+ * 每个用户每年一个位图（user:{id}:checkin:{年}，偏移为当年第几天），每天一个活跃位图（checkin:daily:{日期}，偏移为用户 id）。
+ * 单用户统计一次 GET 取回整年位图（最多 46 字节）在本地计算，多用户统计用 Pipeline 批量 GET；
+ * 日活、留存等人群统计在服务端用 BITCOUNT / BITOP 完成，百万级用户的位图不必传回客户端。
+ */
+public class CheckInAnalytics {
+
+    // BITOP 临时结果键的过期时间，防止客户端在删除前崩溃留下垃圾
+    private static final long TEMP_KEY_TTL_SECONDS = 60;
+
+    private final JedisPool jedisPool;
+
+    public CheckInAnalytics(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    public static String userKey(long userId, int year) {
+        return "user:" + userId + ":checkin:" + year;
+    }
+
+    public static String dailyKey(LocalDate date) {
+        return "checkin:daily:" + date;
+    }
+
+    /**
+     * 签到：同时写用户年度位图和当天活跃位图，一次 Pipeline 往返
+     */
+    public void checkIn(long userId, LocalDate date) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.setbit(userKey(userId, date.getYear()), date.getDayOfYear(), true);
+            pipeline.setbit(dailyKey(date), userId, true);
+            pipeline.sync();
+        }
+    }
+
+    /**
+     * 一次 GET 取回用户整年的签到位图
+     */
+    public CheckInBitmap load(long userId, int year) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return CheckInBitmap.fromRedisBytes(jedis.get(userKey(userId, year).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    public CheckInSummary summarize(long userId, int year, LocalDate asOf) {
+        return CheckInSummary.of(load(userId, year), year, asOf);
+    }
+
+    /**
+     * 批量统计：所有用户的 GET 在一次 Pipeline 中发出，按参数顺序返回
+     */
+    public Map<Long, CheckInSummary> summarize(List<Long> userIds, int year, LocalDate asOf) {
+        List<Response<byte[]>> responses = new ArrayList<>(userIds.size());
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (long userId : userIds) {
+                responses.add(pipeline.get(userKey(userId, year).getBytes(StandardCharsets.UTF_8)));
+            }
+            pipeline.sync();
+        }
+        Map<Long, CheckInSummary> summaries = new LinkedHashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            summaries.put(userIds.get(i), CheckInSummary.of(CheckInBitmap.fromRedisBytes(responses.get(i).get()), year, asOf));
+        }
+        return summaries;
+    }
+
+    /**
+     * 某天的活跃（签到）用户数
+     */
+    public long dailyActiveUsers(LocalDate date) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.bitcount(dailyKey(date));
+        }
+    }
+
+    /**
+     * [from, to] 期间至少签到一次的用户数（如周活、月活），服务端 BITOP OR
+     */
+    public long activeUsersBetween(LocalDate from, LocalDate to) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            keys.add(dailyKey(day));
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        return combineAndCount(BitOP.OR, keys.toArray(new String[0]));
+    }
+
+    /**
+     * 留存率：cohortDay 签到的用户中，laterDay 也签到的比例；cohortDay 无人签到时为 0
+     */
+    public double retention(LocalDate cohortDay, LocalDate laterDay) {
+        String temp = tempKey();
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            Response<Long> cohortSize = pipeline.bitcount(dailyKey(cohortDay));
+            pipeline.bitop(BitOP.AND, temp, dailyKey(cohortDay), dailyKey(laterDay));
+            pipeline.expire(temp, TEMP_KEY_TTL_SECONDS);
+            Response<Long> retained = pipeline.bitcount(temp);
+            pipeline.del(temp);
+            pipeline.sync();
+            return cohortSize.get() == 0 ? 0.0 : (double) retained.get() / cohortSize.get();
+        }
+    }
+
+    /**
+     * 所有给定日期都签到的用户数，服务端 BITOP AND
+     */
+    public long activeOnAllDays(LocalDate... days) {
+        String[] keys = new String[days.length];
+        for (int i = 0; i < days.length; i++) {
+            keys[i] = dailyKey(days[i]);
+        }
+        return combineAndCount(BitOP.AND, keys);
+    }
+
+    private long combineAndCount(BitOP op, String... keys) {
+        String temp = tempKey();
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.bitop(op, temp, keys);
+            pipeline.expire(temp, TEMP_KEY_TTL_SECONDS);
+            Response<Long> count = pipeline.bitcount(temp);
+            pipeline.del(temp);
+            pipeline.sync();
+            return count.get();
+        }
+    }
+
+    private static String tempKey() {
+        return "checkin:tmp:" + UUID.randomUUID();
+    }
+}
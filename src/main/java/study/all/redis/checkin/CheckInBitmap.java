@@ -0,0 +1,190 @@
+package study.all.redis.checkin;
+
+/**
+ * 签到位图的本地只读副本
+ * 由一次 GET 取回的字节构建。Redis 位图中偏移 0 是第一个字节的最高位，这里按同样顺序打包成 long：
+ * 偏移 i 位于 words[i / 64] 的第 63 - i % 64 位（从最低位数）。
+ * 这样查找下一个/上一个签到或未签到的日子只需对整个字做一次掩码和 numberOfLeadingZeros / numberOfTrailingZeros，
+ * 统计区间用 Long.bitCount，一年的位图只有 6 个 long。
+ */
+public final class CheckInBitmap {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long[] words;
+
+    private CheckInBitmap(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * @param bytes GET 返回的原始字节，键不存在时为 null
+     */
+    public static CheckInBitmap fromRedisBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new CheckInBitmap(EMPTY);
+        }
+        long[] words = new long[(bytes.length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << (56 - ((i & 7) << 3));
+        }
+        return new CheckInBitmap(words);
+    }
+
+    /**
+     * 位图能表示的偏移上界（不含），超出部分均视为未签到
+     */
+    public int capacity() {
+        return words.length << 6;
+    }
+
+    public boolean get(int offset) {
+        int word = offset >>> 6;
+        return offset >= 0 && word < words.length && (words[word] & (1L << (63 - (offset & 63)))) != 0;
+    }
+
+    /**
+     * [from, to) 区间内的签到天数
+     */
+    public int count(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, capacity());
+        if (from >= to) {
+            return 0;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        // 保留偏移 >= from 的位
+        long headMask = -1L >>> (from & 63);
+        // 保留偏移 < to 的位
+        long tailMask = -1L << (63 - ((to - 1) & 63));
+        if (first == last) {
+            return Long.bitCount(words[first] & headMask & tailMask);
+        }
+        int count = Long.bitCount(words[first] & headMask);
+        for (int i = first + 1; i < last; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[last] & tailMask);
+    }
+
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * from 及之后第一个签到的偏移，没有时为 -1
+     */
+    public int nextSetBit(int from) {
+        int index = Math.max(from, 0) >>> 6;
+        if (index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L >>> (Math.max(from, 0) & 63));
+        while (word == 0) {
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+        return (index << 6) + Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * from 及之后第一个未签到的偏移；位图之外都视为未签到
+     */
+    public int nextClearBit(int from) {
+        from = Math.max(from, 0);
+        int index = from >>> 6;
+        if (index >= words.length) {
+            return from;
+        }
+        long word = ~words[index] & (-1L >>> (from & 63));
+        while (word == 0) {
+            if (++index == words.length) {
+                return capacity();
+            }
+            word = ~words[index];
+        }
+        return (index << 6) + Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * from 及之前最后一个签到的偏移，没有时为 -1
+     */
+    public int previousSetBit(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word;
+        if (index >= words.length) {
+            index = words.length - 1;
+            if (index < 0) {
+                return -1;
+            }
+            word = words[index];
+        } else {
+            word = words[index] & (-1L << (63 - (from & 63)));
+        }
+        while (word == 0) {
+            if (--index < 0) {
+                return -1;
+            }
+            word = words[index];
+        }
+        return (index << 6) + 63 - Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * from 及之前最后一个未签到的偏移，没有时为 -1
+     */
+    public int previousClearBit(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int index = from >>> 6;
+        if (index >= words.length) {
+            return from;
+        }
+        long word = ~words[index] & (-1L << (63 - (from & 63)));
+        while (word == 0) {
+            if (--index < 0) {
+                return -1;
+            }
+            word = ~words[index];
+        }
+        return (index << 6) + 63 - Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * 以 offset 结尾的连续签到天数，offset 当天未签到时为 0
+     */
+    public int streakEndingAt(int offset) {
+        return get(offset) ? offset - previousClearBit(offset) : 0;
+    }
+
+    /**
+     * 从 offset 开始向后的连续签到天数
+     */
+    public int streakStartingAt(int offset) {
+        return get(offset) ? nextClearBit(offset) - offset : 0;
+    }
+
+    /**
+     * 最长连续签到天数，按连续段跳跃，不逐位扫描
+     */
+    public int longestStreak() {
+        int longest = 0;
+        for (int start = nextSetBit(0); start >= 0; ) {
+            int end = nextClearBit(start);
+            longest = Math.max(longest, end - start);
+            start = nextSetBit(end);
+        }
+        return longest;
+    }
+}
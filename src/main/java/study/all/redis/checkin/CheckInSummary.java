@@ -0,0 +1,66 @@
+package study.all.redis.checkin;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * 一个用户一年的签到统计，全部由本地位图计算
+ * 位图偏移为当年的第几天（1 月 1 日为 1），与 LocalDate.getDayOfYear 一致
+ */
+public class CheckInSummary {
+    private int year;
+    private int totalDays;
+    private int[] monthlyDays;
+    private LocalDate firstCheckIn;
+    private LocalDate lastCheckIn;
+    private int currentStreak;
+    private int longestStreak;
+
+    /**
+     * @param asOf 计算当前连续签到的日期；当天尚未签到时从前一天算起，不打断连续记录
+     */
+    public static CheckInSummary of(CheckInBitmap bitmap, int year, LocalDate asOf) {
+        CheckInSummary summary = new CheckInSummary();
+        int daysInYear = Year.of(year).length();
+        summary.year = year;
+        summary.totalDays = bitmap.count(1, daysInYear + 1);
+        summary.monthlyDays = new int[12];
+        for (int month = 1; month <= 12; month++) {
+            LocalDate start = LocalDate.of(year, month, 1);
+            int from = start.getDayOfYear();
+            summary.monthlyDays[month - 1] = bitmap.count(from, from + start.lengthOfMonth());
+        }
+        int first = bitmap.nextSetBit(1);
+        int last = bitmap.previousSetBit(daysInYear);
+        summary.firstCheckIn = first > 0 && first <= daysInYear ? Year.of(year).atDay(first) : null;
+        summary.lastCheckIn = last > 0 ? Year.of(year).atDay(last) : null;
+        if (asOf.getYear() == year) {
+            int today = asOf.getDayOfYear();
+            summary.currentStreak = bitmap.get(today) ? bitmap.streakEndingAt(today) : bitmap.streakEndingAt(today - 1);
+        }
+        summary.longestStreak = bitmap.longestStreak();
+        return summary;
+    }
+
+    /**
+     * month 为 1~12
+     */
+    public int getMonthlyDays(int month) {
+        return monthlyDays[month - 1];
+    }
+
+    // Getters
+    public int getYear() { return year; }
+    public int getTotalDays() { return totalDays; }
+    public int[] getMonthlyDays() { return monthlyDays.clone(); }
+    public LocalDate getFirstCheckIn() { return firstCheckIn; }
+    public LocalDate getLastCheckIn() { return lastCheckIn; }
+    public int getCurrentStreak() { return currentStreak; }
+    public int getLongestStreak() { return longestStreak; }
+
+    @Override
+    public String toString() {
+        return "CheckInSummary{year=" + year + ", totalDays=" + totalDays + ", first=" + firstCheckIn
+            + ", last=" + lastCheckIn + ", currentStreak=" + currentStreak + ", longestStreak=" + longestStreak + "}";
+    }
+}
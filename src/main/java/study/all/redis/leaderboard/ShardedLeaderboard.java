@@ -0,0 +1,213 @@
+package study.all.redis.leaderboard;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.resps.Tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 分片排行榜
+ * 成员按名称哈希分散到 N 个 ZSET（leaderboard:{名称}:shard:{i}），键名不带 hash tag，
+ * 在 Redis Cluster 中会落到不同槽位，写入压力分摊到多个节点，单个 ZSET 的规模也缩小为 1/N。
+ * 按哈希而不是按分数段分片：分数变化时成员不需要在分片间迁移，各分片的分数分布也相同。
+ *
+ * 读取：
+ * top K 在一次 Pipeline 中取每个分片的前 K 名，再在本地做 K 路归并，读取量 N*K，与成员总数无关；
+ * 全局排名为各分片中分数严格更高的成员数之和（N 个 ZCOUNT，一次往返），同分成员排名相同。
+ */
+public class ShardedLeaderboard {
+
+    private final JedisPool jedisPool;
+    private final String name;
+    private final String[] shardKeys;
+
+    /**
+     * @param shardCount 分片数，确定后不能修改（修改会改变成员所在分片）
+     */
+    public ShardedLeaderboard(JedisPool jedisPool, String name, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("分片数必须为正数");
+        }
+        this.jedisPool = jedisPool;
+        this.name = name;
+        this.shardKeys = new String[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shardKeys[i] = "leaderboard:" + name + ":shard:" + i;
+        }
+    }
+
+    /**
+     * 成员所在分片的键；String.hashCode 在各 JVM 间一致，再做一次混合让相近的名称分散开
+     */
+    String shardKey(String member) {
+        int hash = member.hashCode() * 0x9E3779B9;
+        return shardKeys[Math.floorMod(hash ^ (hash >>> 16), shardKeys.length)];
+    }
+
+    /**
+     * @return 增加后的分数
+     */
+    public double incrementScore(String member, double delta) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zincrby(shardKey(member), delta, member);
+        }
+    }
+
+    /**
+     * 批量加分，所有 ZINCRBY 在一次 Pipeline 中发送
+     */
+    public void incrementScores(Map<String, Double> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (Map.Entry<String, Double> entry : deltas.entrySet()) {
+                pipeline.zincrby(shardKey(entry.getKey()), entry.getValue(), entry.getKey());
+            }
+            pipeline.sync();
+        }
+    }
+
+    public void setScore(String member, double score) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.zadd(shardKey(member), score, member);
+        }
+    }
+
+    public Double getScore(String member) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zscore(shardKey(member), member);
+        }
+    }
+
+    public boolean remove(String member) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zrem(shardKey(member), member) > 0;
+        }
+    }
+
+    /**
+     * 全局前 k 名，分数从高到低；同分时与 ZREVRANGE 一致，按成员名字节序从大到小
+     */
+    public List<Tuple> top(int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        List<Response<List<Tuple>>> responses = new ArrayList<>(shardKeys.length);
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (String shardKey : shardKeys) {
+                responses.add(pipeline.zrevrangeWithScores(shardKey, 0, k - 1));
+            }
+            pipeline.sync();
+        }
+
+        List<List<Tuple>> shards = new ArrayList<>(shardKeys.length);
+        for (Response<List<Tuple>> response : responses) {
+            shards.add(response.get());
+        }
+        return merge(shards, k);
+    }
+
+    /**
+     * K 路归并：堆中每个分片只放当前最高的一项，弹出后补入该分片的下一项，O(k log N)
+     */
+    static List<Tuple> merge(List<List<Tuple>> shards, int k) {
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, shards.size()), (a, b) -> {
+            Tuple x = shards.get(a[0]).get(a[1]);
+            Tuple y = shards.get(b[0]).get(b[1]);
+            int byScore = Double.compare(y.getScore(), x.getScore());
+            // 同分按成员字节序倒序，与各分片 ZREVRANGE 的返回顺序一致
+            return byScore != 0 ? byScore : Arrays.compareUnsigned(y.getBinaryElement(), x.getBinaryElement());
+        });
+        for (int i = 0; i < shards.size(); i++) {
+            if (!shards.get(i).isEmpty()) {
+                heap.add(new int[]{i, 0});
+            }
+        }
+        List<Tuple> result = new ArrayList<>(k);
+        while (result.size() < k && !heap.isEmpty()) {
+            int[] cursor = heap.poll();
+            List<Tuple> shard = shards.get(cursor[0]);
+            result.add(shard.get(cursor[1]));
+            if (++cursor[1] < shard.size()) {
+                heap.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 全局排名（0 为第一名），成员不存在时为 null
+     * 两次往返：先取成员分数，再在一次 Pipeline 中统计每个分片里分数更高的成员数
+     */
+    public Long rank(String member) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Double score = jedis.zscore(shardKey(member), member);
+            if (score == null) {
+                return null;
+            }
+            return countAbove(jedis, score);
+        }
+    }
+
+    /**
+     * 分数为 score 的成员会排在第几名（0 为第一名），即全局分数严格高于 score 的成员数
+     */
+    public long rankOfScore(double score) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return countAbove(jedis, score);
+        }
+    }
+
+    private long countAbove(Jedis jedis, double score) {
+        String min = "(" + score;
+        List<Response<Long>> counts = new ArrayList<>(shardKeys.length);
+        Pipeline pipeline = jedis.pipelined();
+        for (String shardKey : shardKeys) {
+            counts.add(pipeline.zcount(shardKey, min, "+inf"));
+        }
+        pipeline.sync();
+        long above = 0;
+        for (Response<Long> count : counts) {
+            above += count.get();
+        }
+        return above;
+    }
+
+    /**
+     * 成员总数
+     */
+    public long size() {
+        List<Response<Long>> sizes = new ArrayList<>(shardKeys.length);
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (String shardKey : shardKeys) {
+                sizes.add(pipeline.zcard(shardKey));
+            }
+            pipeline.sync();
+        }
+        long total = 0;
+        for (Response<Long> size : sizes) {
+            total += size.get();
+        }
+        return total;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getShardCount() {
+        return shardKeys.length;
+    }
+}
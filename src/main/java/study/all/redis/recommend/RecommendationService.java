@@ -0,0 +1,207 @@
+package study.all.redis.recommend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于 Redis 的商品推荐服务
+ * 写路径：浏览事件到来时增量维护全局热度、用户浏览记录、商品间的共同浏览关系，
+ * 以及每个用户预先计算好的候选集（由其最近浏览商品的共同浏览商品累加得分），每批事件两次 Pipeline 往返。
+ * 读路径：一次 Pipeline 取候选集、浏览记录和热门商品，用 HashSet 排除已浏览商品，候选不足时用热门补齐。
+ * 读取量只与 N 和浏览记录上限有关，与商品总数、历史浏览总量无关。
+ *
+ * 键：
+ * popular_products                  ZSET 商品 -> 浏览次数
+ * reco:user:{用户}:viewed           ZSET 商品 -> 最近浏览时间戳，保留最近 historyLimit 个
+ * reco:user:{用户}:candidates       ZSET 商品 -> 候选得分，保留得分最高的 maxCandidates 个
+ * reco:item:{商品}:co_viewed        ZSET 商品 -> 共同浏览次数，保留最高的 maxCoViewed 个
+ */
+public class RecommendationService {
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
+    public static final String POPULAR_KEY = "popular_products";
+
+    // 默认参数
+    private static final int DEFAULT_HISTORY_LIMIT = 100;
+    private static final int DEFAULT_CO_VIEW_WINDOW = 5;
+    private static final int DEFAULT_CANDIDATE_FANOUT = 10;
+    private static final int DEFAULT_MAX_CANDIDATES = 200;
+    private static final int DEFAULT_MAX_CO_VIEWED = 100;
+
+    private final JedisPool jedisPool;
+    private final int historyLimit;
+    private final int coViewWindow;
+    private final int candidateFanout;
+    private final int maxCandidates;
+    private final int maxCoViewed;
+
+    public RecommendationService(JedisPool jedisPool) {
+        this(jedisPool, DEFAULT_HISTORY_LIMIT, DEFAULT_CO_VIEW_WINDOW, DEFAULT_CANDIDATE_FANOUT,
+            DEFAULT_MAX_CANDIDATES, DEFAULT_MAX_CO_VIEWED);
+    }
+
+    /**
+     * @param historyLimit    每个用户保留的浏览记录数，也是读路径排除集合的上限
+     * @param coViewWindow    新浏览的商品与最近多少个浏览记录建立共同浏览关系
+     * @param candidateFanout 每次浏览从该商品的共同浏览列表中取多少个加入用户候选集
+     * @param maxCandidates   每个用户候选集的容量
+     * @param maxCoViewed     每个商品共同浏览列表的容量
+     */
+    public RecommendationService(JedisPool jedisPool, int historyLimit, int coViewWindow, int candidateFanout,
+                                 int maxCandidates, int maxCoViewed) {
+        if (historyLimit <= 0 || coViewWindow <= 0 || candidateFanout <= 0 || maxCandidates <= 0 || maxCoViewed <= 0) {
+            throw new IllegalArgumentException("推荐参数必须为正数");
+        }
+        this.jedisPool = jedisPool;
+        this.historyLimit = historyLimit;
+        this.coViewWindow = coViewWindow;
+        this.candidateFanout = candidateFanout;
+        this.maxCandidates = maxCandidates;
+        this.maxCoViewed = maxCoViewed;
+    }
+
+    public void recordView(String userId, String productId) {
+        recordViews(userId, Collections.singletonList(productId));
+    }
+
+    /**
+     * 按顺序记录一个用户的一批浏览事件
+     * 第一次往返读取最近浏览和本批商品的共同浏览列表，第二次往返写入全部增量更新
+     */
+    public void recordViews(String userId, List<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        String viewedKey = viewedKey(userId);
+        String candidatesKey = candidatesKey(userId);
+        Set<String> distinctProducts = new LinkedHashSet<>(productIds);
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline reads = jedis.pipelined();
+            Response<List<String>> recentResponse = reads.zrevrange(viewedKey, 0, coViewWindow - 1);
+            Map<String, Response<List<String>>> coViewedResponses = new HashMap<>();
+            for (String product : distinctProducts) {
+                coViewedResponses.put(product, reads.zrevrange(coViewedKey(product), 0, candidateFanout - 1));
+            }
+            reads.sync();
+
+            // 最近浏览窗口，队首为最新
+            ArrayDeque<String> window = new ArrayDeque<>(recentResponse.get());
+            Set<String> seen = new HashSet<>(window);
+            long now = System.currentTimeMillis();
+
+            Pipeline writes = jedis.pipelined();
+            for (int i = 0; i < productIds.size(); i++) {
+                String product = productIds.get(i);
+                // 同一毫秒内的多次浏览保持先后顺序
+                writes.zadd(viewedKey, now + i, product);
+                writes.zincrby(POPULAR_KEY, 1, product);
+                writes.zrem(candidatesKey, product);
+                for (String previous : window) {
+                    if (!previous.equals(product)) {
+                        writes.zincrby(coViewedKey(previous), 1, product);
+                        writes.zincrby(coViewedKey(product), 1, previous);
+                    }
+                }
+                seen.add(product);
+                for (String candidate : coViewedResponses.get(product).get()) {
+                    if (!seen.contains(candidate)) {
+                        writes.zincrby(candidatesKey, 1, candidate);
+                    }
+                }
+                window.remove(product);
+                window.addFirst(product);
+                if (window.size() > coViewWindow) {
+                    window.removeLast();
+                }
+            }
+            writes.zremrangeByRank(viewedKey, 0, -(historyLimit + 1));
+            writes.zremrangeByRank(candidatesKey, 0, -(maxCandidates + 1));
+            for (String product : distinctProducts) {
+                writes.zremrangeByRank(coViewedKey(product), 0, -(maxCoViewed + 1));
+            }
+            writes.sync();
+        }
+    }
+
+    /**
+     * 为用户推荐最多 n 个未浏览过的商品：先取候选集，不足时用全局热门补齐
+     * 一次 Pipeline 往返，读取量为 O(n + historyLimit)
+     */
+    public List<String> recommend(String userId, int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        Response<List<String>> candidatesResponse;
+        Response<List<String>> viewedResponse;
+        Response<List<String>> popularResponse;
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            // 候选集在写入时已移除浏览过的商品，多取一倍以防在两次写入之间刚被浏览
+            candidatesResponse = pipeline.zrevrange(candidatesKey(userId), 0, 2L * n - 1);
+            viewedResponse = pipeline.zrange(viewedKey(userId), 0, -1);
+            // 热门商品最多有 historyLimit 个已被浏览
+            popularResponse = pipeline.zrevrange(POPULAR_KEY, 0, n + historyLimit - 1);
+            pipeline.sync();
+        }
+
+        Set<String> viewed = new HashSet<>(viewedResponse.get());
+        Set<String> recommendations = new LinkedHashSet<>();
+        addUnviewed(candidatesResponse.get(), viewed, recommendations, n);
+        addUnviewed(popularResponse.get(), viewed, recommendations, n);
+        logger.debug("用户 {} 推荐结果: {}", userId, recommendations);
+        return new ArrayList<>(recommendations);
+    }
+
+    private static void addUnviewed(List<String> products, Set<String> viewed, Set<String> result, int n) {
+        for (String product : products) {
+            if (result.size() >= n) {
+                return;
+            }
+            if (!viewed.contains(product)) {
+                result.add(product);
+            }
+        }
+    }
+
+    /**
+     * 用户最近浏览的商品，最新的在前
+     */
+    public List<String> getRecentViews(String userId, int count) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zrevrange(viewedKey(userId), 0, count - 1);
+        }
+    }
+
+    public List<String> getPopularProducts(int count) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zrevrange(POPULAR_KEY, 0, count - 1);
+        }
+    }
+
+    static String viewedKey(String userId) {
+        return "reco:user:" + userId + ":viewed";
+    }
+
+    static String candidatesKey(String userId) {
+        return "reco:user:" + userId + ":candidates";
+    }
+
+    static String coViewedKey(String productId) {
+        return "reco:item:" + productId + ":co_viewed";
+    }
+}
@@ -0,0 +1,67 @@
+package study.all.redis.script;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Lua 脚本的原子复合操作
+ * 原本需要多次往返的“读-改-写”序列在服务端一次执行完，期间不会插入其他客户端的命令
+ */
+public class AtomicRedisOperations {
+
+    private static final String HINCRBY_GET = "hincrby_get";
+
+    private final JedisPool jedisPool;
+    private final LuaScriptRegistry registry;
+
+    public AtomicRedisOperations(JedisPool jedisPool) {
+        this(jedisPool, new LuaScriptRegistry());
+    }
+
+    /**
+     * 内置脚本注册到传入的 registry 中，可与其他脚本共用同一个注册表
+     */
+    public AtomicRedisOperations(JedisPool jedisPool, LuaScriptRegistry registry) {
+        this.jedisPool = jedisPool;
+        this.registry = registry;
+        registry.registerResource(HINCRBY_GET, "lua/hincrby_get.lua");
+    }
+
+    /**
+     * HINCRBY 后读取同一 Hash 的其他字段
+     * @return 自增字段及各读取字段的当前值，按参数顺序；不存在的字段值为 null
+     */
+    public Map<String, String> hincrByAndGet(String key, String field, long delta, String... readFields) {
+        List<String> args = new ArrayList<>(readFields.length + 2);
+        args.add(field);
+        args.add(Long.toString(delta));
+        args.addAll(Arrays.asList(readFields));
+        List<?> reply = (List<?>) eval(HINCRBY_GET, key, args);
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(field, String.valueOf(reply.get(0)));
+        for (int i = 0; i < readFields.length; i++) {
+            // 不存在的字段在脚本中为 false，回复为 nil
+            Object value = i + 1 < reply.size() ? reply.get(i + 1) : null;
+            values.put(readFields[i], value != null ? value.toString() : null);
+        }
+        return values;
+    }
+
+    private Object eval(String script, String key, List<String> args) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return registry.eval(jedis, script, Collections.singletonList(key), args);
+        }
+    }
+
+    public LuaScriptRegistry getRegistry() {
+        return registry;
+    }
+}
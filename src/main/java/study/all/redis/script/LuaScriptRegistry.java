@@ -0,0 +1,118 @@
+package study.all.redis.script;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lua 脚本注册表
+ * 脚本注册一次、SHA1 缓存在本地，执行时只发送 EVALSHA（40 字节摘要而不是整段脚本）；
+ * 服务端脚本缓存被清空（重启、SCRIPT FLUSH、故障切换到从节点）时收到 NOSCRIPT，
+ * 自动 SCRIPT LOAD 后重试一次，调用方无感知。
+ */
+public class LuaScriptRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(LuaScriptRegistry.class);
+
+    private final ConcurrentHashMap<String, RedisScript> scripts = new ConcurrentHashMap<>();
+    private final LongAdder noScriptReloads = new LongAdder();
+
+    /**
+     * 注册脚本，同名脚本会被替换
+     */
+    public RedisScript register(String name, String source) {
+        RedisScript script = new RedisScript(name, source);
+        scripts.put(name, script);
+        return script;
+    }
+
+    /**
+     * 从 classpath 加载 UTF-8 编码的脚本文件并注册，如 lua/hincrby_get.lua
+     */
+    public RedisScript registerResource(String name, String resource) {
+        try (InputStream in = LuaScriptRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("找不到 Lua 脚本: " + resource);
+            }
+            return register(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取 Lua 脚本失败: " + resource, e);
+        }
+    }
+
+    public RedisScript get(String name) {
+        RedisScript script = scripts.get(name);
+        if (script == null) {
+            throw new IllegalArgumentException("未注册的 Lua 脚本: " + name);
+        }
+        return script;
+    }
+
+    public Collection<RedisScript> getScripts() {
+        return scripts.values();
+    }
+
+    /**
+     * 以 EVALSHA 执行脚本，NOSCRIPT 时加载脚本后重试一次
+     */
+    public Object eval(Jedis jedis, RedisScript script, List<String> keys, List<String> args) {
+        try {
+            return jedis.evalsha(script.getSha1(), keys, args);
+        } catch (JedisNoScriptException e) {
+            noScriptReloads.increment();
+            logger.debug("服务端没有脚本 {}，重新加载", script);
+            load(jedis, script);
+            return jedis.evalsha(script.getSha1(), keys, args);
+        }
+    }
+
+    public Object eval(Jedis jedis, String name, List<String> keys, List<String> args) {
+        return eval(jedis, get(name), keys, args);
+    }
+
+    /**
+     * 预加载服务端缺少的脚本：一次 SCRIPT EXISTS 检查全部，只加载缺少的
+     * 启动时调用可以避免首次执行时的 NOSCRIPT 往返，Pipeline 中使用 EVALSHA 前也应先调用
+     */
+    public void preload(Jedis jedis) {
+        List<RedisScript> all = new ArrayList<>(scripts.values());
+        if (all.isEmpty()) {
+            return;
+        }
+        String[] shas = new String[all.size()];
+        for (int i = 0; i < shas.length; i++) {
+            shas[i] = all.get(i).getSha1();
+        }
+        List<Boolean> exists = jedis.scriptExists(shas);
+        for (int i = 0; i < all.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                load(jedis, all.get(i));
+            }
+        }
+    }
+
+    private static void load(Jedis jedis, RedisScript script) {
+        String sha1 = jedis.scriptLoad(script.getSource());
+        if (!script.getSha1().equalsIgnoreCase(sha1)) {
+            // 只会在编码不一致时出现，此时 EVALSHA 永远找不到脚本
+            throw new IllegalStateException("脚本 " + script.getName() + " 的 SHA1 与服务端不一致: " + sha1);
+        }
+    }
+
+    /**
+     * 因 NOSCRIPT 重新加载脚本的次数，持续增长说明服务端脚本缓存频繁被清空
+     */
+    public long getNoScriptReloads() {
+        return noScriptReloads.sum();
+    }
+}
@@ -0,0 +1,45 @@
+package study.all.redis.script;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 一段 Lua 脚本及其 SHA1
+ * SHA1 在本地计算，与服务端 SCRIPT LOAD 返回的值一致，因此 EVALSHA 前不需要先往返一次加载脚本
+ */
+public final class RedisScript {
+
+    private final String name;
+    private final String source;
+    private final String sha1;
+
+    RedisScript(String name, String source) {
+        this.name = name;
+        this.source = source;
+        this.sha1 = sha1Hex(source);
+    }
+
+    private static String sha1Hex(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public String getSource() { return source; }
+    public String getSha1() { return sha1; }
+
+    @Override
+    public String toString() {
+        return name + "(" + sha1 + ")";
+    }
+}
@@ -5,8 +5,17 @@ import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import study.all.redis.batch.JedisAutoBatcher;
+import study.all.redis.checkin.CheckInAnalytics;
+import study.all.redis.checkin.CheckInBitmap;
+import study.all.redis.checkin.CheckInSummary;
+import study.all.redis.leaderboard.ShardedLeaderboard;
+import study.all.redis.recommend.RecommendationService;
+import study.all.redis.script.AtomicRedisOperations;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Redis学习教程 - 实战演示程序
@@ -15,6 +24,10 @@ import java.util.*;
 public class RedisTutorialDemo {
     private static final Logger logger = LoggerFactory.getLogger(RedisTutorialDemo.class);
     private JedisPool jedisPool;
+    private JedisAutoBatcher autoBatcher;
+    private RecommendationService recommendationService;
+    private AtomicRedisOperations atomicOperations;
+    private CheckInAnalytics checkInAnalytics;
     
     public RedisTutorialDemo() {
         initializeRedisConnection();
@@ -41,6 +54,17 @@ public class RedisTutorialDemo {
                 logger.info("Redis连接成功: {}", pong);
             }
             
+            // 高频写路径通过自动批处理执行器合并为Pipeline
+            autoBatcher = new JedisAutoBatcher(jedisPool);
+            recommendationService = new RecommendationService(jedisPool);
+            checkInAnalytics = new CheckInAnalytics(jedisPool);
+            
+            // 多步读改写操作通过Lua脚本在服务端原子执行，启动时预加载脚本
+            atomicOperations = new AtomicRedisOperations(jedisPool);
+            try (Jedis jedis = jedisPool.getResource()) {
+                atomicOperations.getRegistry().preload(jedis);
+            }
+            
         } catch (Exception e) {
             logger.error("Redis连接失败，请确保Redis服务正在运行", e);
             throw new RuntimeException("无法连接到Redis服务器", e);
@@ -120,10 +144,10 @@ public class RedisTutorialDemo {
             Map<String, String> allFields = jedis.hgetAll(userKey);
             logger.info("所有用户信息: {}", allFields);
             
-            // 数值操作
-            jedis.hincrBy(userKey, "age", 1);
-            long newAge = Long.parseLong(jedis.hget(userKey, "age"));
-            logger.info("生日过后年龄: {}", newAge);
+            // 数值操作：自增并读取其他字段，一次往返
+            Map<String, String> afterBirthday = atomicOperations.hincrByAndGet(userKey, "age", 1, "name");
+            long newAge = Long.parseLong(afterBirthday.get("age"));
+            logger.info("{}生日过后年龄: {}", afterBirthday.get("name"), newAge);
             
             // 批量获取字段
             List<String> fields = Arrays.asList("name", "email", "city");
@@ -299,6 +323,16 @@ public class RedisTutorialDemo {
             Set<String> remainingPlayers = new HashSet<>(jedis.zrevrange(leaderboardKey, 0, -1));
             logger.info("删除player4后剩余玩家: {}", remainingPlayers);
             
+            // 大规模排行榜：成员按哈希分散到多个ZSET，批量加分走Pipeline，Top K在本地K路归并
+            ShardedLeaderboard leaderboard = new ShardedLeaderboard(jedisPool, "game", 4);
+            Map<String, Double> roundScores = new HashMap<>();
+            for (int i = 1; i <= 20; i++) {
+                roundScores.put("player" + i, (double) (i * 37 % 100));
+            }
+            leaderboard.incrementScores(roundScores);
+            logger.info("分片排行榜Top 3: {}", leaderboard.top(3));
+            logger.info("player7的全局排名: {}, 总人数: {}", leaderboard.rank("player7") + 1, leaderboard.size());
+            
         } catch (Exception e) {
             logger.error("Sorted Set操作演示出错", e);
         }
@@ -312,39 +346,43 @@ public class RedisTutorialDemo {
     public void demonstrateCheckInSystem() {
         logger.info("=== 用户签到系统演示 ===");
         
-        try (Jedis jedis = jedisPool.getResource()) {
-            
-            String userId = "user:1001";
-            String year = "2024";
-            String checkInKey = userId + ":checkin:" + year;
+        try {
             
-            // 模拟连续签到
-            Calendar calendar = Calendar.getInstance();
-            calendar.set(2024, Calendar.JANUARY, 1); // 2024年1月1日
+            long userId = 1001;
+            int year = 2024;
             
+            // 模拟连续签到：用户年度位图和每日活跃位图各一次SETBIT，合并为Pipeline
+            LocalDate date = LocalDate.of(year, 1, 1); // 2024年1月1日
+            List<CompletableFuture<Boolean>> checkIns = new ArrayList<>();
             for (int day = 0; day < 10; day++) {
-                int dayOfYear = day + 1;
-                jedis.setbit(checkInKey, dayOfYear, true);
-                calendar.add(Calendar.DAY_OF_YEAR, 1);
+                checkIns.add(autoBatcher.setbit(CheckInAnalytics.userKey(userId, year), date.getDayOfYear(), true));
+                checkIns.add(autoBatcher.setbit(CheckInAnalytics.dailyKey(date), userId, true));
+                date = date.plusDays(1);
+            }
+            // 其他用户只在第1天和第2天签到，用于演示留存
+            for (long otherUser = 1002; otherUser <= 1005; otherUser++) {
+                checkIns.add(autoBatcher.setbit(CheckInAnalytics.dailyKey(LocalDate.of(year, 1, 1)), otherUser, true));
+                if (otherUser % 2 == 0) {
+                    checkIns.add(autoBatcher.setbit(CheckInAnalytics.dailyKey(LocalDate.of(year, 1, 2)), otherUser, true));
+                }
             }
+            CompletableFuture.allOf(checkIns.toArray(new CompletableFuture<?>[0])).join();
             
-            // 查询签到情况
-            long totalCheckIns = jedis.bitcount(checkInKey);
-            boolean isCheckedInToday = jedis.getbit(checkInKey, 5); // 查询第5天是否签到
+            // 查询签到情况：一次GET取回整年位图，在本地计算
+            CheckInBitmap bitmap = checkInAnalytics.load(userId, year);
+            CheckInSummary summary = CheckInSummary.of(bitmap, year, LocalDate.of(year, 1, 10));
             
-            logger.info("用户{}在{}年的总签到天数: {}", userId, year, totalCheckIns);
-            logger.info("第5天是否签到: {}", isCheckedInToday ? "是" : "否");
+            logger.info("用户{}在{}年的总签到天数: {}", userId, year, summary.getTotalDays());
+            logger.info("第5天是否签到: {}", bitmap.get(5) ? "是" : "否");
+            logger.info("1月签到天数: {}, 首次签到: {}", summary.getMonthlyDays(1), summary.getFirstCheckIn());
             
-            // 连续签到计算（简化版）
-            long continuousDays = 0;
-            for (int i = 1; i <= 10; i++) {
-                if (jedis.getbit(checkInKey, i)) {
-                    continuousDays++;
-                } else {
-                    break;
-                }
-            }
-            logger.info("连续签到天数: {}", continuousDays);
+            // 连续签到计算：本地按long字跳跃，不再逐天getbit
+            logger.info("连续签到天数: {}", bitmap.streakStartingAt(1));
+            
+            // 人群统计在服务端BITOP/BITCOUNT完成
+            logger.info("1月1日签到人数: {}, 次日留存率: {}",
+                checkInAnalytics.dailyActiveUsers(LocalDate.of(year, 1, 1)),
+                checkInAnalytics.retention(LocalDate.of(year, 1, 1), LocalDate.of(year, 1, 2)));
             
         } catch (Exception e) {
             logger.error("签到系统演示出错", e);
@@ -359,7 +397,7 @@ public class RedisTutorialDemo {
     public void demonstrateRecommendationSystem() {
         logger.info("=== 商品推荐系统演示 ===");
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try {
             
             // 模拟用户浏览行为
             String userId = "user:1001";
@@ -368,33 +406,22 @@ public class RedisTutorialDemo {
                 "product:001", "product:004", "product:002"
             );
             
-            // 记录浏览历史
-            String historyKey = "user:" + userId + ":views";
-            for (String product : viewedProducts) {
-                jedis.lpush(historyKey, product);
-            }
-            jedis.ltrim(historyKey, 0, 99); // 保留最近100次浏览
+            // 其他用户的浏览行为，形成商品间的共同浏览关系
+            recommendationService.recordViews("user:1002", Arrays.asList("product:001", "product:005", "product:006"));
+            recommendationService.recordViews("user:1003", Arrays.asList("product:002", "product:005", "product:007"));
             
-            // 统计商品热度
-            for (String product : viewedProducts) {
-                jedis.zincrby("popular_products", 1, product);
-            }
+            // 记录浏览历史，同时增量更新商品热度和该用户的候选集
+            recommendationService.recordViews(userId, viewedProducts);
             
             // 获取浏览历史
-            List<String> recentViews = jedis.lrange(historyKey, 0, 9);
+            List<String> recentViews = recommendationService.getRecentViews(userId, 10);
             logger.info("用户最近浏览的商品: {}", recentViews);
             
             // 获取热门商品
-            Set<String> popularProducts = new HashSet<>(jedis.zrevrange("popular_products", 0, 4));
-            logger.info("热门商品Top 5: {}", popularProducts);
-            
-            // 简单推荐（基于热门商品）
-            List<String> recommendations = new ArrayList<>();
-            for (String product : popularProducts) {
-                if (!recentViews.contains(product)) {
-                    recommendations.add(product);
-                }
-            }
+            logger.info("热门商品Top 5: {}", recommendationService.getPopularProducts(5));
+            
+            // 候选集 + 热门补齐，排除已浏览商品，一次Pipeline往返
+            List<String> recommendations = recommendationService.recommend(userId, 5);
             
             logger.info("为用户推荐的商品: {}", recommendations);
             
@@ -491,7 +518,10 @@ public class RedisTutorialDemo {
         
         logger.info("Redis学习教程演示完成！");
         
-        // 关闭连接池
+        // 关闭批处理执行器和连接池
+        if (autoBatcher != null) {
+            autoBatcher.close();
+        }
         if (jedisPool != null) {
             jedisPool.close();
         }
@@ -0,0 +1,111 @@
+package study.all.redisson.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界本地缓存
+ * LRU 基于 LinkedHashMap 的访问顺序；LFU 在最老的若干条目中采样淘汰访问次数最少者
+ */
+public class LocalCache<K, V> {
+
+    // LFU 淘汰时采样的条目数
+    private static final int LFU_SAMPLES = 8;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final NearCacheOptions.EvictionPolicy policy;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LocalCache(NearCacheOptions options) {
+        this.maxSize = options.getMaxSize();
+        this.ttlMillis = options.getTtlMillis();
+        this.policy = options.getEvictionPolicy();
+        boolean accessOrder = policy == NearCacheOptions.EvictionPolicy.LRU;
+        this.map = new LinkedHashMap<>(16, 0.75f, accessOrder);
+    }
+
+    /**
+     * @return 命中的值；未命中或已过期返回 null
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expireAt != 0 && entry.expireAt <= System.currentTimeMillis()) {
+            map.remove(key);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        entry.frequency++;
+        hits.increment();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long expireAt = ttlMillis == 0 ? 0 : System.currentTimeMillis() + ttlMillis;
+        Entry<V> old = map.put(key, new Entry<>(value, expireAt));
+        if (old == null && map.size() > maxSize) {
+            evictOne();
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        map.remove(key);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getExpirations() { return expirations.sum(); }
+
+    private void evictOne() {
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        if (policy == NearCacheOptions.EvictionPolicy.LRU) {
+            // 访问顺序下第一个即最久未访问的条目
+            it.next();
+            it.remove();
+        } else {
+            K victim = null;
+            int minFrequency = Integer.MAX_VALUE;
+            for (int i = 0; i < LFU_SAMPLES && it.hasNext(); i++) {
+                Map.Entry<K, Entry<V>> candidate = it.next();
+                if (candidate.getValue().frequency < minFrequency) {
+                    minFrequency = candidate.getValue().frequency;
+                    victim = candidate.getKey();
+                }
+            }
+            map.remove(victim);
+        }
+        evictions.increment();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expireAt;
+        int frequency;
+
+        Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package study.all.redisson.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 近端缓存配置
+ * 本地容量、淘汰策略与本地条目存活时间
+ */
+public class NearCacheOptions {
+
+    /**
+     * 本地淘汰策略
+     */
+    public enum EvictionPolicy {
+        /** 最近最少使用 */
+        LRU,
+        /** 最不经常使用（采样近似） */
+        LFU
+    }
+
+    private int maxSize = 10000;
+    private long ttlMillis = TimeUnit.MINUTES.toMillis(5);
+    private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static NearCacheOptions defaults() {
+        return new NearCacheOptions();
+    }
+
+    public static class Builder {
+        private NearCacheOptions options = new NearCacheOptions();
+
+        public Builder maxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize 必须大于 0");
+            }
+            options.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * 本地条目存活时间，0 表示只依赖失效通知
+         */
+        public Builder ttl(long ttl, TimeUnit unit) {
+            if (ttl < 0) {
+                throw new IllegalArgumentException("ttl 不能为负数");
+            }
+            options.ttlMillis = unit.toMillis(ttl);
+            return this;
+        }
+
+        public Builder evictionPolicy(EvictionPolicy evictionPolicy) {
+            options.evictionPolicy = evictionPolicy;
+            return this;
+        }
+
+        public NearCacheOptions build() {
+            return options;
+        }
+    }
+
+    // Getters
+    public int getMaxSize() { return maxSize; }
+    public long getTtlMillis() { return ttlMillis; }
+    public EvictionPolicy getEvictionPolicy() { return evictionPolicy; }
+}
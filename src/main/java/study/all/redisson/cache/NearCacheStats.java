@@ -0,0 +1,47 @@
+package study.all.redisson.cache;
+
+/**
+ * 近端缓存统计信息快照
+ */
+public class NearCacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+
+    public NearCacheStats(long hits, long misses, long evictions,
+                          long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    /**
+     * 命中率，没有请求时返回 0
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // Getters
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+    public long getInvalidations() { return invalidations; }
+    public int getSize() { return size; }
+
+    @Override
+    public String toString() {
+        return "NearCacheStats{hits=" + hits + ", misses=" + misses
+            + ", evictions=" + evictions + ", expirations=" + expirations
+            + ", invalidations=" + invalidations + ", size=" + size
+            + ", hitRate=" + String.format("%.2f", getHitRate()) + "}";
+    }
+}
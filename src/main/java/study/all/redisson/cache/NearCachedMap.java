@@ -0,0 +1,171 @@
+package study.all.redisson.cache;
+
+import org.redisson.api.RMap;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.listener.StatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带近端缓存的分布式 Map
+ * 热点读直接命中本地堆内缓存，写操作通过发布订阅通知其他节点失效本地副本
+ *
+ * 键固定为 String，以便失效消息在全局 StringCodec 下传输
+ */
+public class NearCachedMap<V> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(NearCachedMap.class);
+
+    private static final String INVALIDATE_KEY = "K";
+    private static final String INVALIDATE_ALL = "C";
+    private static final String SEPARATOR = "|";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RMap<String, V> map;
+    private final RTopic invalidationTopic;
+    private final LocalCache<String, V> localCache;
+    private final LongAdder invalidations = new LongAdder();
+    // 每次收到失效通知递增，用于丢弃远程读取期间已被失效的结果
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+    private final int messageListenerId;
+    private final int statusListenerId;
+
+    public NearCachedMap(RedissonClient client, String name) {
+        this(client, name, NearCacheOptions.defaults());
+    }
+
+    public NearCachedMap(RedissonClient client, String name, NearCacheOptions options) {
+        this.map = client.getMap(name);
+        this.invalidationTopic = client.getTopic(name + ":near-cache:invalidate");
+        this.localCache = new LocalCache<>(options);
+
+        this.messageListenerId = invalidationTopic.addListener(String.class, new MessageListener<String>() {
+            @Override
+            public void onMessage(CharSequence channel, String msg) {
+                onInvalidation(msg);
+            }
+        });
+        // 订阅（重连）成功时无法确认断线期间漏掉了哪些通知，直接清空本地缓存
+        this.statusListenerId = invalidationTopic.addListener(new StatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                invalidateAllLocal();
+            }
+
+            @Override
+            public void onUnsubscribe(String channel) {
+                invalidateAllLocal();
+            }
+        });
+        logger.info("近端缓存已创建: {}, 容量: {}, 淘汰策略: {}",
+                   name, options.getMaxSize(), options.getEvictionPolicy());
+    }
+
+    /**
+     * 读取值，优先命中本地缓存
+     */
+    public V get(String key) {
+        V value = localCache.get(key);
+        if (value != null) {
+            return value;
+        }
+        long epoch = invalidationEpoch.get();
+        value = map.get(key);
+        // 读取期间有失效通知到达时不回填，避免缓存旧值；
+        // 检查与回填之间到达的失效会先递增代数再删除本地项，回填后再检查一次，变化了就撤销这次回填
+        if (value != null && epoch == invalidationEpoch.get()) {
+            localCache.put(key, value);
+            if (epoch != invalidationEpoch.get()) {
+                localCache.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    public V put(String key, V value) {
+        V old = map.put(key, value);
+        invalidate(key);
+        return old;
+    }
+
+    public void fastPut(String key, V value) {
+        map.fastPut(key, value);
+        invalidate(key);
+    }
+
+    public V remove(String key) {
+        V old = map.remove(key);
+        invalidate(key);
+        return old;
+    }
+
+    public void clear() {
+        map.clear();
+        invalidateAllLocal();
+        invalidationTopic.publish(INVALIDATE_ALL + SEPARATOR + instanceId);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 获取底层的远程 RMap
+     */
+    public RMap<String, V> getRemoteMap() {
+        return map;
+    }
+
+    /**
+     * 获取命中、未命中、淘汰等统计信息快照
+     */
+    public NearCacheStats getStats() {
+        return new NearCacheStats(
+            localCache.getHits(),
+            localCache.getMisses(),
+            localCache.getEvictions(),
+            localCache.getExpirations(),
+            invalidations.sum(),
+            localCache.size());
+    }
+
+    private void invalidate(String key) {
+        invalidationEpoch.incrementAndGet();
+        localCache.invalidate(key);
+        invalidationTopic.publish(INVALIDATE_KEY + SEPARATOR + instanceId + SEPARATOR + key);
+    }
+
+    private void invalidateAllLocal() {
+        invalidationEpoch.incrementAndGet();
+        localCache.clear();
+    }
+
+    private void onInvalidation(String msg) {
+        String[] parts = msg.split("\\|", 3);
+        if (parts.length < 2 || instanceId.equals(parts[1])) {
+            // 自己发出的通知在写入时已处理
+            return;
+        }
+        invalidations.increment();
+        if (INVALIDATE_ALL.equals(parts[0])) {
+            invalidateAllLocal();
+        } else if (INVALIDATE_KEY.equals(parts[0]) && parts.length == 3) {
+            invalidationEpoch.incrementAndGet();
+            localCache.invalidate(parts[2]);
+        }
+    }
+
+    /**
+     * 取消失效订阅并清空本地缓存
+     */
+    @Override
+    public void close() {
+        invalidationTopic.removeListener(messageListenerId, statusListenerId);
+        localCache.clear();
+    }
+}
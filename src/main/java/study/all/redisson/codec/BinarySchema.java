@@ -0,0 +1,12 @@
+package study.all.redisson.codec;
+
+/**
+ * 对象的紧凑二进制布局：按固定顺序读写各字段，不写字段名和类型信息
+ * 新增字段只能追加在末尾，read 时用 {@link BinaryReader#hasRemaining()} 兼容旧数据
+ */
+public interface BinarySchema<T> {
+
+    void write(T value, BinaryWriter out);
+
+    T read(BinaryReader in);
+}
@@ -0,0 +1,237 @@
+package study.all.redisson.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于 {@link BinarySchema} 的紧凑二进制编解码器
+ * 每个值的格式：1 字节头（高 4 位格式版本，最低位为压缩标志）+ 变长类型 ID + [压缩时的原始长度] + 数据；
+ * 类型 ID 由注册时指定，不写类名，数据超过阈值时用 LZ4 块压缩（压缩后没有变小则保留原文）。
+ * 全局编解码器仍为 StringCodec，需要二进制编码的对象在获取时单独指定，例如 client.getTopic(name, codec)。
+ * 未注册的类型交给 fallback 编解码器（类型 ID 为 0），未配置 fallback 时编码失败。
+ * Map 的键（包括 Stream 的字段名）按 UTF-8 字符串编码，只有值使用紧凑格式。
+ */
+public class CompactCodec extends BaseCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_COMPRESSED = 0x01;
+    private static final int FALLBACK_TYPE_ID = 0;
+
+    private final Map<Class<?>, Registration<?>> byType = new HashMap<>();
+    private final Map<Integer, Registration<?>> byTypeId = new HashMap<>();
+    private int compressionThreshold = -1;
+    private Codec fallback;
+
+    private final Encoder encoder = this::encode;
+    private final Decoder<Object> decoder = (buf, state) -> decode(buf);
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private CompactCodec codec = new CompactCodec();
+
+        /**
+         * 注册类型，typeId 必须为正数且在读写两端保持一致，一旦使用不能再改
+         */
+        public <T> Builder register(int typeId, Class<T> type, BinarySchema<T> schema) {
+            if (typeId <= FALLBACK_TYPE_ID) {
+                throw new IllegalArgumentException("typeId 必须大于 0");
+            }
+            if (codec.byTypeId.containsKey(typeId) || codec.byType.containsKey(type)) {
+                throw new IllegalArgumentException("重复注册: " + typeId + " / " + type.getName());
+            }
+            Registration<T> registration = new Registration<>(typeId, schema);
+            codec.byType.put(type, registration);
+            codec.byTypeId.put(typeId, registration);
+            return this;
+        }
+
+        /**
+         * 编码后超过 thresholdBytes 的数据用 LZ4 压缩；小消息压缩收益很低，默认不压缩
+         */
+        public Builder compressAbove(int thresholdBytes) {
+            if (thresholdBytes < 0) {
+                throw new IllegalArgumentException("压缩阈值不能为负");
+            }
+            codec.compressionThreshold = thresholdBytes;
+            return this;
+        }
+
+        /**
+         * 未注册类型使用的编解码器，例如 Kryo5Codec 或 JsonJacksonCodec
+         */
+        public Builder fallback(Codec fallback) {
+            codec.fallback = fallback;
+            return this;
+        }
+
+        public CompactCodec build() {
+            return codec;
+        }
+    }
+
+    /**
+     * 编码为字节数组，不经过 Netty 缓冲区，便于直接比较大小或基准测试
+     */
+    public byte[] toBytes(Object value) throws IOException {
+        ByteBuf buf = encode(value);
+        try {
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    public Object fromBytes(byte[] bytes) throws IOException {
+        return decode(Unpooled.wrappedBuffer(bytes));
+    }
+
+    private ByteBuf encode(Object value) throws IOException {
+        Registration<?> registration = value == null ? null : byType.get(value.getClass());
+        if (registration == null) {
+            return encodeFallback(value);
+        }
+        BinaryWriter writer = new BinaryWriter();
+        try {
+            registration.write(value, writer);
+        } catch (RuntimeException e) {
+            throw new IOException("编码失败: " + value.getClass().getName(), e);
+        }
+        int rawLength = writer.size();
+        if (compressionThreshold >= 0 && rawLength > compressionThreshold) {
+            byte[] compressed = new byte[Lz4Block.maxCompressedLength(rawLength)];
+            int compressedLength = Lz4Block.compress(writer.array(), 0, rawLength, compressed);
+            if (compressedLength < rawLength) {
+                ByteBuf out = ByteBufAllocator.DEFAULT.buffer(compressedLength + 11);
+                out.writeByte((FORMAT_VERSION << 4) | FLAG_COMPRESSED);
+                writeVarInt(out, registration.typeId);
+                writeVarInt(out, rawLength);
+                out.writeBytes(compressed, 0, compressedLength);
+                return out;
+            }
+        }
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer(rawLength + 6);
+        out.writeByte(FORMAT_VERSION << 4);
+        writeVarInt(out, registration.typeId);
+        out.writeBytes(writer.array(), 0, rawLength);
+        return out;
+    }
+
+    private ByteBuf encodeFallback(Object value) throws IOException {
+        if (fallback == null) {
+            throw new IOException("未注册的类型且没有配置 fallback 编解码器: "
+                + (value == null ? "null" : value.getClass().getName()));
+        }
+        ByteBuf payload = fallback.getValueEncoder().encode(value);
+        try {
+            ByteBuf out = ByteBufAllocator.DEFAULT.buffer(payload.readableBytes() + 2);
+            out.writeByte(FORMAT_VERSION << 4);
+            writeVarInt(out, FALLBACK_TYPE_ID);
+            out.writeBytes(payload);
+            return out;
+        } finally {
+            payload.release();
+        }
+    }
+
+    private Object decode(ByteBuf buf) throws IOException {
+        try {
+            int header = buf.readUnsignedByte();
+            if (header >>> 4 != FORMAT_VERSION) {
+                throw new IOException("不支持的格式版本: " + (header >>> 4));
+            }
+            int typeId = readVarInt(buf);
+            if (typeId == FALLBACK_TYPE_ID) {
+                if (fallback == null) {
+                    throw new IOException("数据由 fallback 编解码器写入，但当前没有配置 fallback");
+                }
+                return fallback.getValueDecoder().decode(buf, null);
+            }
+            Registration<?> registration = byTypeId.get(typeId);
+            if (registration == null) {
+                throw new IOException("未注册的类型 ID: " + typeId);
+            }
+            byte[] payload;
+            if ((header & FLAG_COMPRESSED) != 0) {
+                int rawLength = readVarInt(buf);
+                byte[] compressed = ByteBufUtil.getBytes(buf);
+                buf.skipBytes(compressed.length);
+                payload = Lz4Block.decompress(compressed, 0, compressed.length, rawLength);
+            } else {
+                payload = ByteBufUtil.getBytes(buf);
+                buf.skipBytes(payload.length);
+            }
+            return registration.schema.read(new BinaryReader(payload));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("解码失败，数据不完整或已损坏", e);
+        }
+    }
+
+    private static void writeVarInt(ByteBuf out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuf buf) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buf.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("变长整数过长");
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public Decoder<Object> getMapKeyDecoder() {
+        return StringCodec.INSTANCE.getMapKeyDecoder();
+    }
+
+    @Override
+    public Encoder getMapKeyEncoder() {
+        return StringCodec.INSTANCE.getMapKeyEncoder();
+    }
+
+    private static class Registration<T> {
+        final int typeId;
+        final BinarySchema<T> schema;
+
+        Registration(int typeId, BinarySchema<T> schema) {
+            this.typeId = typeId;
+            this.schema = schema;
+        }
+
+        @SuppressWarnings("unchecked")
+        void write(Object value, BinaryWriter writer) {
+            schema.write((T) value, writer);
+        }
+    }
+}
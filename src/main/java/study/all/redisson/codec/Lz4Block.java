@@ -0,0 +1,177 @@
+package study.all.redisson.codec;
+
+import java.util.Arrays;
+
+/**
+ * LZ4 块格式的压缩与解压（单线程贪心匹配，不含帧头和校验和）
+ * 序列 = 标记字节（高 4 位字面量长度、低 4 位匹配长度 - 4）+ 字面量 + 2 字节小端偏移 + 长度扩展字节；
+ * 按格式约定最后 5 个字节总是字面量，最后一个匹配至少在末尾 12 字节之前开始。
+ * 原始长度不在块内，由调用方另行保存。
+ */
+final class Lz4Block {
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 65535;
+    private static final int MAX_HASH_LOG = 12;
+    private static final int MIN_HASH_LOG = 8;
+    // 解压时每个输入字节最多对应的输出字节数
+    private static final int MAX_EXPANSION = 255;
+
+    private Lz4Block() {
+    }
+
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * @return 写入 dest 的字节数
+     */
+    static int compress(byte[] src, int srcOff, int srcLen, byte[] dest) {
+        int op = 0;
+        int anchor = srcOff;
+        int srcEnd = srcOff + srcLen;
+        if (srcLen > MF_LIMIT) {
+            // 哈希表大小随输入长度缩放，小消息不必分配和清零整张 16KB 的表
+            int hashLog = Math.max(MIN_HASH_LOG, Math.min(MAX_HASH_LOG, 32 - Integer.numberOfLeadingZeros(srcLen)));
+            int[] table = new int[1 << hashLog];
+            int matchLimit = srcEnd - LAST_LITERALS;
+            int mfLimit = srcEnd - MF_LIMIT;
+            int ip = srcOff;
+            while (ip < mfLimit) {
+                int sequence = readInt(src, ip);
+                int slot = (sequence * -1640531535) >>> (32 - hashLog);
+                // 表中存 位置 + 1，0 表示空槽
+                int ref = table[slot] - 1;
+                table[slot] = ip + 1;
+                if (ref < srcOff || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                // Arrays.mismatch 是向量化的内建实现，长匹配时比逐字节比较快得多
+                int maxLen = matchLimit - ip;
+                int mismatch = Arrays.mismatch(src, ip + MIN_MATCH, ip + maxLen, src, ref + MIN_MATCH, ref + maxLen);
+                int matchLen = mismatch < 0 ? maxLen : MIN_MATCH + mismatch;
+                op = writeSequence(src, anchor, ip - anchor, dest, op, ip - ref, matchLen);
+                ip += matchLen;
+                anchor = ip;
+            }
+        }
+        return writeLastLiterals(src, anchor, srcEnd - anchor, dest, op);
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literalLen, byte[] dest, int op,
+                                     int offset, int matchLen) {
+        int matchCode = matchLen - MIN_MATCH;
+        dest[op++] = (byte) ((Math.min(literalLen, 15) << 4) | Math.min(matchCode, 15));
+        op = writeLength(literalLen, dest, op);
+        System.arraycopy(src, literalStart, dest, op, literalLen);
+        op += literalLen;
+        dest[op++] = (byte) offset;
+        dest[op++] = (byte) (offset >>> 8);
+        return writeLength(matchCode, dest, op);
+    }
+
+    private static int writeLastLiterals(byte[] src, int literalStart, int literalLen, byte[] dest, int op) {
+        dest[op++] = (byte) (Math.min(literalLen, 15) << 4);
+        op = writeLength(literalLen, dest, op);
+        System.arraycopy(src, literalStart, dest, op, literalLen);
+        return op + literalLen;
+    }
+
+    /**
+     * 长度 >= 15 时在标记字节之后追加 (length - 15)，每字节最多 255，以小于 255 的字节结束
+     */
+    private static int writeLength(int length, byte[] dest, int op) {
+        if (length < 15) {
+            return op;
+        }
+        int remaining = length - 15;
+        while (remaining >= 255) {
+            dest[op++] = (byte) 255;
+            remaining -= 255;
+        }
+        dest[op++] = (byte) remaining;
+        return op;
+    }
+
+    /**
+     * 解压为恰好 originalLength 字节；数据损坏时抛出 IllegalArgumentException
+     * LZ4 每个输入字节最多展开为 255 字节，超出这一比例的长度必然是损坏的数据，分配内存之前就拒绝
+     */
+    static byte[] decompress(byte[] src, int srcOff, int srcLen, int originalLength) {
+        if (originalLength < 0 || originalLength > (long) srcLen * MAX_EXPANSION) {
+            throw new IllegalArgumentException("原始长度无效: " + originalLength + "，压缩数据 " + srcLen + " 字节");
+        }
+        byte[] dest = new byte[originalLength];
+        int ip = srcOff;
+        int srcEnd = srcOff + srcLen;
+        int op = 0;
+        while (true) {
+            if (ip >= srcEnd) {
+                throw new IllegalArgumentException("压缩数据不完整");
+            }
+            int token = src[ip++] & 0xFF;
+            int literalLen = token >>> 4;
+            if (literalLen == 15) {
+                int b;
+                do {
+                    checkAvailable(ip, 1, srcEnd);
+                    b = src[ip++] & 0xFF;
+                    literalLen += b;
+                } while (b == 255);
+            }
+            checkAvailable(ip, literalLen, srcEnd);
+            checkAvailable(op, literalLen, originalLength);
+            System.arraycopy(src, ip, dest, op, literalLen);
+            ip += literalLen;
+            op += literalLen;
+            if (ip == srcEnd) {
+                break;
+            }
+            checkAvailable(ip, 2, srcEnd);
+            int offset = (src[ip] & 0xFF) | ((src[ip + 1] & 0xFF) << 8);
+            ip += 2;
+            if (offset == 0 || offset > op) {
+                throw new IllegalArgumentException("压缩数据损坏，非法偏移: " + offset);
+            }
+            int matchLen = token & 0x0F;
+            if (matchLen == 15) {
+                int b;
+                do {
+                    checkAvailable(ip, 1, srcEnd);
+                    b = src[ip++] & 0xFF;
+                    matchLen += b;
+                } while (b == 255);
+            }
+            matchLen += MIN_MATCH;
+            checkAvailable(op, matchLen, originalLength);
+            // 偏移小于匹配长度时源和目标重叠，必须逐字节复制
+            int ref = op - offset;
+            if (offset >= matchLen) {
+                System.arraycopy(dest, ref, dest, op, matchLen);
+                op += matchLen;
+            } else {
+                for (int i = 0; i < matchLen; i++) {
+                    dest[op++] = dest[ref++];
+                }
+            }
+        }
+        if (op != originalLength) {
+            throw new IllegalArgumentException("解压长度 " + op + " 与原始长度 " + originalLength + " 不符");
+        }
+        return dest;
+    }
+
+    private static void checkAvailable(int position, int length, int end) {
+        if (length < 0 || length > end - position) {
+            throw new IllegalArgumentException("压缩数据损坏，长度越界");
+        }
+    }
+
+    private static int readInt(byte[] buf, int i) {
+        return (buf[i] & 0xFF) | ((buf[i + 1] & 0xFF) << 8) | ((buf[i + 2] & 0xFF) << 16) | (buf[i + 3] << 24);
+    }
+}
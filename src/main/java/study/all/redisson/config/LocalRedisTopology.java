@@ -0,0 +1,262 @@
+package study.all.redisson.config;
+
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 在本机临时端口上启动 redis-server 进程，按 RedissonProperties 的各种拓扑建立连接并做读写冒烟验证
+ * 需要 PATH 中有 redis-server（集群模式还需要 redis-cli），也可以用 -Dredis.server / -Dredis.cli 指定路径；
+ * 用法: java ... LocalRedisTopology [single|master_slave|sentinel|cluster ...]，不带参数时依次验证全部模式
+ */
+public class LocalRedisTopology implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LocalRedisTopology.class);
+
+    private static final String MASTER_NAME = "mymaster";
+    private static final int CLUSTER_MASTERS = 3;
+    private static final long STARTUP_TIMEOUT_MILLIS = 10_000;
+
+    private final String redisServer;
+    private final String redisCli;
+    private final Path workDir;
+    private final List<Process> processes = new ArrayList<>();
+
+    public LocalRedisTopology() throws IOException {
+        this(System.getProperty("redis.server", "redis-server"), System.getProperty("redis.cli", "redis-cli"));
+    }
+
+    public LocalRedisTopology(String redisServer, String redisCli) throws IOException {
+        this.redisServer = redisServer;
+        this.redisCli = redisCli;
+        this.workDir = Files.createTempDirectory("redisson-topology-");
+    }
+
+    public static void main(String[] args) {
+        List<String> modes = args.length > 0 ? Arrays.asList(args)
+                                             : Arrays.asList("single", "master_slave", "sentinel", "cluster");
+        int failed = 0;
+        for (String name : modes) {
+            RedissonProperties.Mode mode = RedissonProperties.Mode.valueOf(name.trim().toUpperCase());
+            try (LocalRedisTopology topology = new LocalRedisTopology()) {
+                topology.verify(topology.start(mode));
+                logger.info("✅ {} 模式验证通过", mode);
+            } catch (Exception e) {
+                failed++;
+                logger.error("❌ {} 模式验证失败", mode, e);
+            }
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 按指定模式启动所需的进程，返回指向这些进程的连接配置
+     */
+    public RedissonProperties start(RedissonProperties.Mode mode) throws IOException, InterruptedException {
+        switch (mode) {
+            case SINGLE: {
+                int port = startServer();
+                return properties(mode, "127.0.0.1:" + port);
+            }
+            case MASTER_SLAVE: {
+                int master = startServer();
+                int replica = startServer("--replicaof", "127.0.0.1", String.valueOf(master));
+                return properties(mode, "127.0.0.1:" + master + ",127.0.0.1:" + replica);
+            }
+            case SENTINEL: {
+                int master = startServer();
+                startServer("--replicaof", "127.0.0.1", String.valueOf(master));
+                int sentinel = startSentinel(master);
+                return properties(mode, "127.0.0.1:" + sentinel);
+            }
+            case CLUSTER: {
+                List<String> nodes = new ArrayList<>();
+                for (int i = 0; i < CLUSTER_MASTERS; i++) {
+                    int port = freePort();
+                    startServer(port, "--cluster-enabled", "yes",
+                                "--cluster-config-file", workDir.resolve("nodes-" + port + ".conf").toString());
+                    nodes.add("127.0.0.1:" + port);
+                }
+                createCluster(nodes);
+                return properties(mode, String.join(",", nodes));
+            }
+            default:
+                throw new IllegalArgumentException("本地拓扑暂不支持: " + mode);
+        }
+    }
+
+    /**
+     * 用给定配置创建客户端，写入一组分散在不同槽位的键再读回，副本读取时等待复制追上
+     */
+    public void verify(RedissonProperties properties) throws InterruptedException {
+        RedissonClient client = RedissonConfig.createClient(properties);
+        try {
+            for (int i = 0; i < 16; i++) {
+                String key = "topology:check:" + i;
+                client.<String>getBucket(key).set("value-" + i);
+            }
+            for (int i = 0; i < 16; i++) {
+                RBucket<String> bucket = client.getBucket("topology:check:" + i);
+                String expected = "value-" + i;
+                long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+                while (!expected.equals(bucket.get())) {
+                    if (System.currentTimeMillis() > deadline) {
+                        throw new IllegalStateException(bucket.getName() + " 读回的值与写入不一致");
+                    }
+                    Thread.sleep(50);
+                }
+            }
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private RedissonProperties properties(RedissonProperties.Mode mode, String addresses) {
+        Properties props = new Properties();
+        props.setProperty(RedissonProperties.PREFIX + "mode", mode.name());
+        props.setProperty(RedissonProperties.PREFIX + "addresses", addresses);
+        props.setProperty(RedissonProperties.PREFIX + "master-name", MASTER_NAME);
+        props.setProperty(RedissonProperties.PREFIX + "connection-pool-size", "4");
+        props.setProperty(RedissonProperties.PREFIX + "connection-minimum-idle-size", "1");
+        props.setProperty(RedissonProperties.PREFIX + "netty-threads", "4");
+        props.setProperty(RedissonProperties.PREFIX + "threads", "2");
+        return RedissonProperties.fromProperties(props);
+    }
+
+    private int startServer(String... extraArgs) throws IOException, InterruptedException {
+        int port = freePort();
+        startServer(port, extraArgs);
+        return port;
+    }
+
+    private void startServer(int port, String... extraArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(Arrays.asList(
+            redisServer, "--port", String.valueOf(port), "--bind", "127.0.0.1",
+            "--save", "", "--appendonly", "no", "--dir", workDir.toString()));
+        command.addAll(Arrays.asList(extraArgs));
+        launch(command, port);
+    }
+
+    /**
+     * 哨兵需要可写的配置文件，监控的 master 只用一个哨兵判定即可
+     */
+    private int startSentinel(int masterPort) throws IOException, InterruptedException {
+        int port = freePort();
+        Path conf = workDir.resolve("sentinel-" + port + ".conf");
+        Files.write(conf, Arrays.asList(
+            "port " + port,
+            "bind 127.0.0.1",
+            "dir " + workDir,
+            "sentinel monitor " + MASTER_NAME + " 127.0.0.1 " + masterPort + " 1",
+            "sentinel down-after-milliseconds " + MASTER_NAME + " 5000"), StandardCharsets.UTF_8);
+        launch(Arrays.asList(redisServer, conf.toString(), "--sentinel"), port);
+        return port;
+    }
+
+    private void createCluster(List<String> nodes) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(Arrays.asList(redisCli, "--cluster", "create"));
+        command.addAll(nodes);
+        command.addAll(Arrays.asList("--cluster-replicas", "0", "--cluster-yes"));
+        String output = run(command);
+        if (!output.contains("[OK] All 16384 slots covered")) {
+            throw new IllegalStateException("创建集群失败: " + output);
+        }
+        // 槽位分配完成后各节点还要通过 gossip 交换状态，等到都报告 ok 再交给客户端
+        String port = nodes.get(0).substring(nodes.get(0).lastIndexOf(':') + 1);
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (!run(Arrays.asList(redisCli, "-p", port, "cluster", "info")).contains("cluster_state:ok")) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("集群状态未在超时时间内变为 ok");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private void launch(List<String> command, int port) throws IOException, InterruptedException {
+        File log = workDir.resolve("redis-" + port + ".log").toFile();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+        processes.add(process);
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (!accepting(port)) {
+            if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("端口 " + port + " 上的进程未能启动，日志: " + log);
+            }
+            Thread.sleep(50);
+        }
+        logger.info("已启动 {}", String.join(" ", command));
+    }
+
+    private static String run(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        process.waitFor();
+        return output;
+    }
+
+    private static boolean accepting(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 停止全部进程并删除临时目录
+     */
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("清理临时目录 {} 失败", workDir, e);
+        }
+    }
+}
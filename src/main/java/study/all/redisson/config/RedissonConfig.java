@@ -16,11 +16,6 @@ public class RedissonConfig {
     private static volatile RedissonClient redissonClient;
     private static final Object lock = new Object();
     
-    // 默认 Redis 连接配置
-    private static final String DEFAULT_REDIS_ADDRESS = "redis://127.0.0.1:6379";
-    private static final int DEFAULT_CONNECTION_POOL_SIZE = 64;
-    private static final int DEFAULT_TIMEOUT = 3000;
-    
     /**
      * 获取 Redisson 客户端实例（单例模式）
      * @return RedissonClient 实例
@@ -38,25 +33,25 @@ public class RedissonConfig {
     
     /**
      * 创建 Redisson 客户端实例
+     * 连接拓扑和连接池参数由 RedissonProperties 加载
      * @return RedissonClient 实例
      */
     private static RedissonClient createClient() {
+        return createClient(RedissonProperties.load());
+    }
+    
+    /**
+     * 按指定配置创建独立的 Redisson 客户端实例（不参与单例管理）
+     * 便于针对本地启动的 redis-server 进程验证不同拓扑
+     * @param properties 连接配置
+     * @return RedissonClient 实例
+     */
+    public static RedissonClient createClient(RedissonProperties properties) {
         try {
-            Config config = new Config();
-            
-            // 配置单节点模式
-            config.useSingleServer()
-                  .setAddress(DEFAULT_REDIS_ADDRESS)
-                  .setConnectionPoolSize(DEFAULT_CONNECTION_POOL_SIZE)
-                  .setTimeout(DEFAULT_TIMEOUT)
-                  .setRetryAttempts(3)
-                  .setRetryInterval(1500);
-            
-            // 设置序列化方式
-            config.setCodec(new org.redisson.client.codec.StringCodec());
+            Config config = properties.toConfig();
             
             RedissonClient client = Redisson.create(config);
-            logger.info("Redisson 客户端初始化成功，连接地址: {}", DEFAULT_REDIS_ADDRESS);
+            logger.info("Redisson 客户端初始化成功，配置: {}", properties);
             return client;
             
         } catch (Exception e) {
@@ -0,0 +1,343 @@
+package study.all.redisson.config;
+
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.Kryo5Codec;
+import org.redisson.codec.SerializationCodec;
+import org.redisson.config.BaseConfig;
+import org.redisson.config.BaseMasterSlaveServersConfig;
+import org.redisson.config.ClusterServersConfig;
+import org.redisson.config.Config;
+import org.redisson.config.MasterSlaveServersConfig;
+import org.redisson.config.ReadMode;
+import org.redisson.config.ReplicatedServersConfig;
+import org.redisson.config.SentinelServersConfig;
+import org.redisson.config.SingleServerConfig;
+import org.redisson.config.SubscriptionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Redisson 连接配置模型
+ * 支持单节点、主从（可从副本读取）、哨兵、集群和云托管复制模式，
+ * 以及 Netty 线程数、连接池、订阅连接池和编解码器的调优
+ *
+ * 配置优先级（从低到高）：默认值 → classpath 下的 redisson.properties → 系统属性 → 环境变量。
+ * 属性名形如 redisson.connection-pool-size，对应环境变量 REDISSON_CONNECTION_POOL_SIZE。
+ * 设置 redisson.yaml-file 时直接使用 Redisson 原生 YAML 配置文件，其余属性被忽略。
+ */
+public class RedissonProperties {
+    private static final Logger logger = LoggerFactory.getLogger(RedissonProperties.class);
+
+    public static final String PREFIX = "redisson.";
+    private static final String CLASSPATH_FILE = "redisson.properties";
+
+    /**
+     * 部署拓扑
+     */
+    public enum Mode {
+        SINGLE, MASTER_SLAVE, SENTINEL, CLUSTER, REPLICATED
+    }
+
+    private Mode mode = Mode.SINGLE;
+    private List<String> addresses = listOf("redis://127.0.0.1:6379");
+    private String masterName;
+    private String password;
+    private int database = 0;
+    private ReadMode readMode = ReadMode.SLAVE;
+    private SubscriptionMode subscriptionMode = SubscriptionMode.MASTER;
+
+    private int timeout = 3000;
+    private int connectTimeout = 10000;
+    private int retryAttempts = 3;
+    private int retryInterval = 1500;
+
+    private int connectionPoolSize = 64;
+    private int connectionMinimumIdleSize = 24;
+    private int subscriptionConnectionPoolSize = 50;
+    private int subscriptionConnectionMinimumIdleSize = 1;
+    private int subscriptionsPerConnection = 5;
+
+    private int nettyThreads = 32;
+    private int threads = 16;
+    private String codec = "string";
+    private String yamlFile;
+
+    /**
+     * 按优先级加载配置
+     */
+    public static RedissonProperties load() {
+        Properties merged = new Properties();
+        try (InputStream in = RedissonProperties.class.getClassLoader().getResourceAsStream(CLASSPATH_FILE)) {
+            if (in != null) {
+                merged.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                logger.info("已加载 classpath 配置文件: {}", CLASSPATH_FILE);
+            }
+        } catch (IOException e) {
+            logger.warn("读取 {} 失败，使用默认配置", CLASSPATH_FILE, e);
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                merged.setProperty(name, System.getProperty(name));
+            }
+        }
+        for (Map.Entry<String, String> env : System.getenv().entrySet()) {
+            if (env.getKey().startsWith("REDISSON_")) {
+                merged.setProperty(envToProperty(env.getKey()), env.getValue());
+            }
+        }
+        return fromProperties(merged);
+    }
+
+    /**
+     * 从 Properties 解析配置，未设置的项保留默认值
+     */
+    public static RedissonProperties fromProperties(Properties props) {
+        RedissonProperties p = new RedissonProperties();
+        String mode = get(props, "mode");
+        if (mode != null) {
+            p.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+        String addresses = get(props, "addresses");
+        if (addresses != null) {
+            p.addresses = new ArrayList<>();
+            for (String address : addresses.split(",")) {
+                if (!address.trim().isEmpty()) {
+                    p.addresses.add(normalizeAddress(address.trim()));
+                }
+            }
+        }
+        p.masterName = getOrDefault(props, "master-name", p.masterName);
+        p.password = getOrDefault(props, "password", p.password);
+        p.database = getInt(props, "database", p.database);
+        String readMode = get(props, "read-mode");
+        if (readMode != null) {
+            p.readMode = ReadMode.valueOf(readMode.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+        String subscriptionMode = get(props, "subscription-mode");
+        if (subscriptionMode != null) {
+            p.subscriptionMode = SubscriptionMode.valueOf(subscriptionMode.trim().toUpperCase(Locale.ROOT));
+        }
+        p.timeout = getInt(props, "timeout", p.timeout);
+        p.connectTimeout = getInt(props, "connect-timeout", p.connectTimeout);
+        p.retryAttempts = getInt(props, "retry-attempts", p.retryAttempts);
+        p.retryInterval = getInt(props, "retry-interval", p.retryInterval);
+        p.connectionPoolSize = getInt(props, "connection-pool-size", p.connectionPoolSize);
+        p.connectionMinimumIdleSize = getInt(props, "connection-minimum-idle-size", p.connectionMinimumIdleSize);
+        p.subscriptionConnectionPoolSize = getInt(props, "subscription-connection-pool-size",
+                                                  p.subscriptionConnectionPoolSize);
+        p.subscriptionConnectionMinimumIdleSize = getInt(props, "subscription-connection-minimum-idle-size",
+                                                         p.subscriptionConnectionMinimumIdleSize);
+        p.subscriptionsPerConnection = getInt(props, "subscriptions-per-connection", p.subscriptionsPerConnection);
+        p.nettyThreads = getInt(props, "netty-threads", p.nettyThreads);
+        p.threads = getInt(props, "threads", p.threads);
+        p.codec = getOrDefault(props, "codec", p.codec);
+        p.yamlFile = getOrDefault(props, "yaml-file", p.yamlFile);
+        p.validate();
+        return p;
+    }
+
+    /**
+     * 转换为 Redisson 原生配置
+     */
+    public Config toConfig() throws IOException {
+        if (yamlFile != null) {
+            logger.info("使用 YAML 配置文件: {}", yamlFile);
+            return Config.fromYAML(new File(yamlFile));
+        }
+
+        Config config = new Config();
+        config.setNettyThreads(nettyThreads);
+        config.setThreads(threads);
+        config.setCodec(createCodec(codec));
+
+        switch (mode) {
+            case SINGLE: {
+                SingleServerConfig single = config.useSingleServer()
+                    .setAddress(addresses.get(0))
+                    .setDatabase(database)
+                    .setConnectionPoolSize(connectionPoolSize)
+                    .setConnectionMinimumIdleSize(connectionMinimumIdleSize)
+                    .setSubscriptionConnectionPoolSize(subscriptionConnectionPoolSize)
+                    .setSubscriptionConnectionMinimumIdleSize(subscriptionConnectionMinimumIdleSize);
+                applyBase(single);
+                break;
+            }
+            case MASTER_SLAVE: {
+                MasterSlaveServersConfig masterSlave = config.useMasterSlaveServers()
+                    .setMasterAddress(addresses.get(0))
+                    .setDatabase(database);
+                for (String replica : addresses.subList(1, addresses.size())) {
+                    masterSlave.addSlaveAddress(replica);
+                }
+                applyMasterSlave(masterSlave);
+                break;
+            }
+            case SENTINEL: {
+                SentinelServersConfig sentinel = config.useSentinelServers()
+                    .setMasterName(masterName)
+                    .setDatabase(database);
+                for (String address : addresses) {
+                    sentinel.addSentinelAddress(address);
+                }
+                applyMasterSlave(sentinel);
+                break;
+            }
+            case CLUSTER: {
+                ClusterServersConfig cluster = config.useClusterServers();
+                for (String address : addresses) {
+                    cluster.addNodeAddress(address);
+                }
+                applyMasterSlave(cluster);
+                break;
+            }
+            case REPLICATED: {
+                ReplicatedServersConfig replicated = config.useReplicatedServers()
+                    .setDatabase(database);
+                for (String address : addresses) {
+                    replicated.addNodeAddress(address);
+                }
+                applyMasterSlave(replicated);
+                break;
+            }
+            default:
+                throw new IllegalStateException("不支持的部署模式: " + mode);
+        }
+        return config;
+    }
+
+    private void applyMasterSlave(BaseMasterSlaveServersConfig<?> cfg) {
+        cfg.setReadMode(readMode)
+           .setSubscriptionMode(subscriptionMode)
+           .setMasterConnectionPoolSize(connectionPoolSize)
+           .setMasterConnectionMinimumIdleSize(connectionMinimumIdleSize)
+           .setSlaveConnectionPoolSize(connectionPoolSize)
+           .setSlaveConnectionMinimumIdleSize(connectionMinimumIdleSize)
+           .setSubscriptionConnectionPoolSize(subscriptionConnectionPoolSize)
+           .setSubscriptionConnectionMinimumIdleSize(subscriptionConnectionMinimumIdleSize);
+        applyBase(cfg);
+    }
+
+    private void applyBase(BaseConfig<?> cfg) {
+        cfg.setTimeout(timeout)
+           .setConnectTimeout(connectTimeout)
+           .setRetryAttempts(retryAttempts)
+           .setRetryInterval(retryInterval)
+           .setSubscriptionsPerConnection(subscriptionsPerConnection);
+        if (password != null && !password.isEmpty()) {
+            cfg.setPassword(password);
+        }
+    }
+
+    /**
+     * 根据名称创建编解码器，也支持填写实现类的全限定名
+     */
+    static Codec createCodec(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "string":
+                return new StringCodec();
+            case "json":
+                return new JsonJacksonCodec();
+            case "kryo":
+                return new Kryo5Codec();
+            case "jdk":
+                return new SerializationCodec();
+            default:
+                try {
+                    return (Codec) Class.forName(name.trim()).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("无法创建编解码器: " + name, e);
+                }
+        }
+    }
+
+    private void validate() {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("redisson.addresses 不能为空");
+        }
+        if (mode == Mode.SENTINEL && (masterName == null || masterName.isEmpty())) {
+            throw new IllegalArgumentException("哨兵模式必须设置 redisson.master-name");
+        }
+        if (connectionMinimumIdleSize > connectionPoolSize) {
+            throw new IllegalArgumentException("connection-minimum-idle-size 不能大于 connection-pool-size");
+        }
+    }
+
+    static String envToProperty(String envName) {
+        return PREFIX + envName.substring("REDISSON_".length()).toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static String normalizeAddress(String address) {
+        return address.contains("://") ? address : "redis://" + address;
+    }
+
+    private static String get(Properties props, String key) {
+        String value = props.getProperty(PREFIX + key);
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private static String getOrDefault(Properties props, String key, String defaultValue) {
+        String value = get(props, key);
+        return value == null ? defaultValue : value;
+    }
+
+    private static int getInt(Properties props, String key, int defaultValue) {
+        String value = get(props, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项 " + PREFIX + key + " 不是有效整数: " + value, e);
+        }
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "RedissonProperties{mode=" + mode + ", addresses=" + addresses
+            + ", readMode=" + readMode + ", connectionPoolSize=" + connectionPoolSize
+            + ", nettyThreads=" + nettyThreads + ", codec=" + codec + "}";
+    }
+
+    // Getters
+    public Mode getMode() { return mode; }
+    public List<String> getAddresses() { return addresses; }
+    public String getMasterName() { return masterName; }
+    public int getDatabase() { return database; }
+    public ReadMode getReadMode() { return readMode; }
+    public SubscriptionMode getSubscriptionMode() { return subscriptionMode; }
+    public int getTimeout() { return timeout; }
+    public int getConnectTimeout() { return connectTimeout; }
+    public int getRetryAttempts() { return retryAttempts; }
+    public int getRetryInterval() { return retryInterval; }
+    public int getConnectionPoolSize() { return connectionPoolSize; }
+    public int getConnectionMinimumIdleSize() { return connectionMinimumIdleSize; }
+    public int getSubscriptionConnectionPoolSize() { return subscriptionConnectionPoolSize; }
+    public int getSubscriptionConnectionMinimumIdleSize() { return subscriptionConnectionMinimumIdleSize; }
+    public int getSubscriptionsPerConnection() { return subscriptionsPerConnection; }
+    public int getNettyThreads() { return nettyThreads; }
+    public int getThreads() { return threads; }
+    public String getCodec() { return codec; }
+    public String getYamlFile() { return yamlFile; }
+}
@@ -3,6 +3,8 @@ package study.all.redisson.demo;
 import org.redisson.api.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import study.all.redisson.cache.NearCacheOptions;
+import study.all.redisson.cache.NearCachedMap;
 import study.all.redisson.config.RedissonConfig;
 
 import java.util.concurrent.TimeUnit;
@@ -58,6 +60,43 @@ public class BasicOperationsDemo {
         logger.info("=== RMap 演示结束 ===\n");
     }
     
+    /**
+     * 演示带近端缓存的 RMap，热点读取直接命中本地缓存
+     */
+    public void demonstrateNearCache() {
+        logger.info("=== 近端缓存演示开始 ===");
+        
+        NearCacheOptions options = NearCacheOptions.builder()
+            .maxSize(1000)
+            .ttl(1, TimeUnit.MINUTES)
+            .evictionPolicy(NearCacheOptions.EvictionPolicy.LRU)
+            .build();
+        
+        try (NearCachedMap<String> users = new NearCachedMap<>(client, "demo:users", options)) {
+            users.fastPut("user1", "张三");
+            users.fastPut("user2", "李四");
+            
+            // 第一次读取走网络，之后命中本地缓存
+            long startTime = System.nanoTime();
+            for (int i = 0; i < 10000; i++) {
+                users.get("user1");
+            }
+            long costMicros = (System.nanoTime() - startTime) / 1000;
+            logger.info("10000 次读取 user1 耗时: {} 微秒", costMicros);
+            
+            // 写入会使本地副本失效，下一次读取重新加载
+            users.put("user1", "张三丰");
+            logger.info("更新后 user1 的值: {}", users.get("user1"));
+            logger.info("缓存统计: {}", users.getStats());
+            
+            users.clear();
+        } catch (Exception e) {
+            logger.error("近端缓存演示出错", e);
+        }
+        
+        logger.info("=== 近端缓存演示结束 ===\n");
+    }
+    
     /**
      * 演示 RList（分布式 List）的使用
      */
@@ -236,6 +275,7 @@ public class BasicOperationsDemo {
         logger.info("开始 Redisson 基础功能演示...\n");
         
         demonstrateRMap();
+        demonstrateNearCache();
         demonstrateRList();
         demonstrateRSet();
         demonstrateAtomicLong();
@@ -1,15 +1,35 @@
 package study.all.redisson.demo;
 
+import org.redisson.api.RFuture;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
 import org.redisson.api.listener.MessageListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import study.all.redisson.codec.BinaryReader;
+import study.all.redisson.codec.BinarySchema;
+import study.all.redisson.codec.BinaryWriter;
+import study.all.redisson.codec.CompactCodec;
 import study.all.redisson.config.RedissonConfig;
+import study.all.redisson.pubsub.BatchedPublisher;
+import study.all.redisson.pubsub.DispatchOptions;
+import study.all.redisson.pubsub.DispatchingTopicListener;
+import study.all.redisson.pubsub.PatternTopicRouter;
+import study.all.redisson.pubsub.PublishOptions;
+import study.all.redisson.stream.ReliableStreamConsumer;
+import study.all.redisson.stream.StreamOptions;
+import study.all.redisson.stream.StreamProducer;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Redisson 发布订阅演示类
@@ -17,6 +37,12 @@ import java.util.concurrent.TimeUnit;
  */
 public class PubSubDemo {
     private static final Logger logger = LoggerFactory.getLogger(PubSubDemo.class);
+    
+    // 全局编解码器为 StringCodec，对象消息单独使用紧凑二进制编码
+    private static final CompactCodec USER_MESSAGE_CODEC = CompactCodec.builder()
+        .register(1, UserMessage.class, UserMessage.SCHEMA)
+        .compressAbove(256)
+        .build();
     private final RedissonClient client;
     
     public PubSubDemo() {
@@ -76,7 +102,7 @@ public class PubSubDemo {
         logger.info("=== 对象消息演示开始 ===");
         
         String topicName = "demo:object_topic";
-        RTopic topic = client.getTopic(topicName);
+        RTopic topic = client.getTopic(topicName, USER_MESSAGE_CODEC);
         
         CountDownLatch latch = new CountDownLatch(2);
         
@@ -169,152 +195,296 @@ public class PubSubDemo {
     
     /**
      * 模式匹配订阅演示
+     * 对 Redis 只发起一次 PSUBSCRIBE demo:user:*，本地按更细的模式把消息分发给各自的处理器
      */
     public void demonstratePatternSubscription() {
         logger.info("=== 模式匹配订阅演示开始 ===");
         
-        // 注意：Redisson 的模式订阅需要使用特殊方法
-        // 这里演示概念，实际使用时可能需要不同的API
-        
-        CountDownLatch latch = new CountDownLatch(3);
+        // login、logout 各命中两个订阅，update 命中两个订阅
+        CountDownLatch latch = new CountDownLatch(6);
         
-        // 订阅以 "demo:user:" 开头的所有频道
-        RTopic userTopic1 = client.getTopic("demo:user:login");
-        RTopic userTopic2 = client.getTopic("demo:user:logout");
-        RTopic userTopic3 = client.getTopic("demo:user:update");
-        
-        MessageListener<String> userListener = new MessageListener<String>() {
-            @Override
-            public void onMessage(CharSequence channel, String msg) {
+        try (PatternTopicRouter<String> router = new PatternTopicRouter<>(client, "demo:user:*", String.class)) {
+            router.subscribe("demo:user:*", (channel, msg) -> {
                 logger.info("用户活动 - 频道: {}, 消息: {}", channel, msg);
                 latch.countDown();
+            });
+            router.subscribe("demo:user:log[io]*", (channel, msg) -> {
+                logger.info("登录审计 - 频道: {}, 消息: {}", channel, msg);
+                latch.countDown();
+            });
+            router.subscribe("demo:user:update", (channel, msg) -> {
+                logger.info("资料变更 - 频道: {}, 消息: {}", channel, msg);
+                latch.countDown();
+            });
+            
+            logger.info("已通过一个模式订阅注册 {} 个本地订阅", router.getSubscriptionCount());
+            
+            // 发布用户活动消息
+            client.getTopic("demo:user:login").publish("用户张三登录系统");
+            client.getTopic("demo:user:logout").publish("用户李四退出登录");
+            client.getTopic("demo:user:update").publish("用户王五更新个人信息");
+            
+            if (latch.await(3, TimeUnit.SECONDS)) {
+                logger.info("模式订阅收到 {} 条消息，分发 {} 次", router.getReceived(), router.getDelivered());
+            } else {
+                logger.warn("部分模式匹配消息未及时接收");
             }
-        };
-        
-        int listenerId1 = userTopic1.addListener(String.class, userListener);
-        int listenerId2 = userTopic2.addListener(String.class, userListener);
-        int listenerId3 = userTopic3.addListener(String.class, userListener);
-        
-        logger.info("已订阅用户活动相关频道");
-        
-        // 发布用户活动消息
-        userTopic1.publish("用户张三登录系统");
-        userTopic2.publish("用户李四退出登录");
-        userTopic3.publish("用户王五更新个人信息");
-        
-        try {
-            latch.await(3, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             logger.error("等待模式匹配消息时被中断", e);
         }
         
-        // 清理订阅
-        userTopic1.removeListener(listenerId1);
-        userTopic2.removeListener(listenerId2);
-        userTopic3.removeListener(listenerId3);
-        
         logger.info("=== 模式匹配订阅演示结束 ===\n");
     }
     
+    /**
+     * 监听器分发演示
+     * 监听回调运行在 Redisson 的事件循环线程上，慢处理会拖住同一连接上的所有订阅；
+     * 用 DispatchingTopicListener 把慢处理转到专属线程池，同一用户的事件仍按顺序处理
+     */
+    public void demonstrateListenerDispatch() {
+        logger.info("=== 监听器分发演示开始 ===");
+        
+        RTopic slowTopic = client.getTopic("demo:dispatch:user_events", USER_MESSAGE_CODEC);
+        RTopic fastTopic = client.getTopic("demo:dispatch:heartbeat");
+        StreamProducer<UserMessage> spillStream = new StreamProducer<>(client, "demo:dispatch:spill",
+            USER_MESSAGE_CODEC, StreamOptions.defaults());
+        
+        final int eventCount = 30;
+        CountDownLatch slowLatch = new CountDownLatch(eventCount);
+        CountDownLatch fastLatch = new CountDownLatch(3);
+        
+        // 队列满时转存到 Redis Stream，稍后可由 ReliableStreamConsumer 补处理
+        DispatchOptions<UserMessage> options = DispatchOptions.<UserMessage>builder()
+            .workers(4)
+            .queueCapacity(8)
+            .orderedPerKey(UserMessage::getId)
+            .spillOnOverflow((channel, msg) -> spillStream.publishAsync(msg).whenComplete((id, error) -> {
+                if (error != null) {
+                    logger.warn("转存消息失败: {}", msg, error);
+                } else {
+                    slowLatch.countDown();
+                }
+            }))
+            .build();
+        
+        try (DispatchingTopicListener<UserMessage> dispatcher = new DispatchingTopicListener<>(slowTopic,
+                UserMessage.class, (channel, msg) -> {
+                    try {
+                        // 模拟耗时处理
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    slowLatch.countDown();
+                }, options)) {
+            
+            long startTime = System.nanoTime();
+            int fastListenerId = fastTopic.addListener(String.class, (channel, msg) -> {
+                logger.info("心跳消息 {} 在 {} ms 后到达", msg,
+                           TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                fastLatch.countDown();
+            });
+            
+            for (int i = 0; i < eventCount; i++) {
+                slowTopic.publish(new UserMessage((long) (i % 3), "用户" + (i % 3), "操作_" + i));
+            }
+            for (int i = 0; i < 3; i++) {
+                fastTopic.publish("ping_" + i);
+            }
+            
+            if (!fastLatch.await(3, TimeUnit.SECONDS)) {
+                logger.warn("心跳消息未及时到达");
+            }
+            if (slowLatch.await(10, TimeUnit.SECONDS)) {
+                logger.info("用户事件处理完成 - 处理: {}, 转存: {}, 最大队列深度: {}",
+                           dispatcher.getProcessed(), dispatcher.getSpilled(), dispatcher.getMaxQueueDepth());
+            } else {
+                logger.warn("用户事件未在预期时间内处理完成，当前队列深度: {}", dispatcher.getQueueDepth());
+            }
+            
+            fastTopic.removeListener(fastListenerId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("等待分发消息时被中断", e);
+        }
+        
+        logger.info("=== 监听器分发演示结束 ===\n");
+    }
+    
     /**
      * 消息确认和可靠性演示
+     * RTopic 是即发即弃的，订阅方断线期间的消息会丢失；这里改用 Redis Stream 消费者组：
+     * 消息持久化在流中，处理成功才确认，失败或消费者崩溃的消息会被重新投递
      */
     public void demonstrateReliableMessaging() {
         logger.info("=== 可靠消息传递演示开始 ===");
         
-        String topicName = "demo:reliable_topic";
-        RTopic topic = client.getTopic(topicName);
+        String streamName = "demo:reliable_stream";
+        StreamOptions options = StreamOptions.builder()
+            .batchSize(10)
+            .blockTimeout(Duration.ofMillis(500))
+            .reclaim(Duration.ofSeconds(1), Duration.ofSeconds(1))
+            .build();
+        StreamProducer<String> producer = new StreamProducer<>(client, streamName, options);
         
-        CountDownLatch latch = new CountDownLatch(1);
+        // 先发送消息，此时还没有任何消费者在线
+        StreamMessageId messageId = producer.publish("重要业务通知");
+        logger.info("发送重要消息，消息ID: {}", messageId);
         
-        // 订阅并确认消息
-        int listenerId = topic.addListener(String.class, new MessageListener<String>() {
-            @Override
-            public void onMessage(CharSequence channel, String msg) {
-                logger.info("可靠接收消息: {}", msg);
-                
-                // 模拟消息处理
-                try {
-                    Thread.sleep(1000);
-                    logger.info("消息处理完成: {}", msg);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        
+        // 第一次处理模拟失败，消息不确认，空闲超过1秒后被重新认领
+        try (ReliableStreamConsumer<String> consumer = new ReliableStreamConsumer<>(client, streamName,
+                "reliable-group", "consumer-1", (id, msg) -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("模拟处理失败: " + msg);
+                    }
+                    logger.info("可靠接收消息: {} (第{}次投递)", msg, attempts.get());
                     latch.countDown();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.error("消息处理被中断", e);
-                }
+                }, options)) {
+            
+            logger.info("已建立消费者组订阅");
+            
+            if (latch.await(5, TimeUnit.SECONDS)) {
+                logger.info("重要消息已确认接收和处理，重新认领 {} 条", consumer.getReclaimed());
+            } else {
+                logger.warn("重要消息处理超时");
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("等待可靠消息确认时被中断", e);
+        }
         
-        logger.info("已建立可靠消息订阅");
+        logger.info("=== 可靠消息传递演示结束 ===\n");
+    }
+    
+    /**
+     * 流消息性能测试：异步 XADD 发布，消费者组批量读取、批量确认
+     */
+    public void demonstrateStreamPerformanceTest() {
+        logger.info("=== 流消息性能测试开始 ===");
         
-        // 发送重要消息
-        long messageId = topic.publish("重要业务通知");
-        logger.info("发送重要消息，消息ID: {}", messageId);
+        String streamName = "demo:performance_stream";
+        client.getStream(streamName).delete();
         
-        try {
-            if (latch.await(3, TimeUnit.SECONDS)) {
-                logger.info("重要消息已确认接收和处理");
+        final int messageCount = 1000;
+        CountDownLatch latch = new CountDownLatch(messageCount);
+        StreamOptions options = StreamOptions.builder().batchSize(200).build();
+        StreamProducer<String> producer = new StreamProducer<>(client, streamName, options);
+        
+        try (ReliableStreamConsumer<String> consumer = new ReliableStreamConsumer<>(client, streamName,
+                "performance-group", "consumer-1", (id, msg) -> latch.countDown(), options)) {
+            
+            long startTime = System.currentTimeMillis();
+            List<RFuture<StreamMessageId>> sends = new ArrayList<>(messageCount);
+            for (int i = 0; i < messageCount; i++) {
+                sends.add(producer.publishAsync("消息_" + i));
+            }
+            for (RFuture<StreamMessageId> send : sends) {
+                send.toCompletableFuture().join();
+            }
+            logger.info("已发送 {} 条消息", messageCount);
+            
+            if (latch.await(10, TimeUnit.SECONDS)) {
+                long duration = Math.max(1, System.currentTimeMillis() - startTime);
+                logger.info("性能测试结果:");
+                logger.info("- 接收消息数量: {}", messageCount);
+                logger.info("- 已确认消息数量: {}（最后一批的 XACK 可能仍在进行）", consumer.getAcked());
+                logger.info("- 耗时: {} ms", duration);
+                logger.info("- 平均 QPS: {}", String.format("%.2f", messageCount * 1000.0 / duration));
             } else {
-                logger.warn("重要消息处理超时");
+                logger.warn("流消息性能测试未在预期时间内完成");
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            logger.error("等待可靠消息确认时被中断", e);
+            logger.error("流消息性能测试被中断", e);
         }
         
-        topic.removeListener(listenerId);
-        logger.info("=== 可靠消息传递演示结束 ===\n");
+        logger.info("=== 流消息性能测试结束 ===\n");
     }
     
     /**
      * 性能测试演示
+     * 对比三种发布方式：同步 publish 每条都等待一次往返，QPS 受网络延迟限制；
+     * 异步 publishAsync 连续发出后统一等待；BatchedPublisher 用 RBatch 把多条 PUBLISH 合并为一次往返
      */
     public void demonstratePerformanceTest() {
         logger.info("=== 消息性能测试开始 ===");
         
-        String topicName = "demo:performance_topic";
-        RTopic topic = client.getTopic(topicName);
+        final int messageCount = 100_000;
         
-        final int messageCount = 1000;
-        CountDownLatch latch = new CountDownLatch(messageCount);
-        long startTime = System.currentTimeMillis();
+        measurePublishMode("同步发布", "demo:performance_topic:sync", messageCount, topicName -> {
+            RTopic topic = client.getTopic(topicName);
+            for (int i = 0; i < messageCount; i++) {
+                topic.publish("消息_" + i);
+            }
+        });
         
-        // 订阅消息
-        int listenerId = topic.addListener(String.class, new MessageListener<String>() {
-            @Override
-            public void onMessage(CharSequence channel, String msg) {
-                // 简单处理，不记录日志以提高性能
-                latch.countDown();
+        measurePublishMode("异步发布", "demo:performance_topic:async", messageCount, topicName -> {
+            RTopic topic = client.getTopic(topicName);
+            List<RFuture<Long>> sends = new ArrayList<>(messageCount);
+            for (int i = 0; i < messageCount; i++) {
+                sends.add(topic.publishAsync("消息_" + i));
+            }
+            for (RFuture<Long> send : sends) {
+                send.toCompletableFuture().join();
             }
         });
         
-        // 快速发送大量消息
-        for (int i = 0; i < messageCount; i++) {
-            topic.publish("消息_" + i);
-        }
+        measurePublishMode("批量发布", "demo:performance_topic:batched", messageCount, topicName -> {
+            PublishOptions options = PublishOptions.builder()
+                .batchSize(500)
+                .linger(Duration.ofMillis(5))
+                .maxInFlightBatches(8)
+                .build();
+            CompletableFuture<Long> last = null;
+            try (BatchedPublisher<String> publisher = new BatchedPublisher<>(client, topicName, options)) {
+                for (int i = 0; i < messageCount; i++) {
+                    last = publisher.publish("消息_" + i);
+                }
+            }
+            last.join();
+        });
+        
+        logger.info("=== 消息性能测试结束 ===\n");
+    }
+    
+    /**
+     * 订阅测试频道后执行 publishAll，分别统计发布耗时和全部消息送达订阅方的耗时
+     */
+    private void measurePublishMode(String mode, String topicName, int messageCount, Consumer<String> publishAll) {
+        RTopic topic = client.getTopic(topicName);
+        CountDownLatch latch = new CountDownLatch(messageCount);
         
-        logger.info("已发送 {} 条消息", messageCount);
+        // 简单处理，不记录日志以提高性能
+        int listenerId = topic.addListener(String.class, (channel, msg) -> latch.countDown());
         
         try {
-            if (latch.await(10, TimeUnit.SECONDS)) {
-                long endTime = System.currentTimeMillis();
-                long duration = endTime - startTime;
-                double qps = (messageCount * 1000.0) / duration;
-                logger.info("性能测试结果:");
-                logger.info("- 接收消息数量: {}", messageCount);
-                logger.info("- 耗时: {} ms", duration);
-                logger.info("- 平均 QPS: {:.2f}", qps);
+            long startTime = System.nanoTime();
+            publishAll.accept(topicName);
+            long publishMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            
+            if (latch.await(60, TimeUnit.SECONDS)) {
+                long deliverMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                logger.info("{}性能测试结果:", mode);
+                logger.info("- 发送消息数量: {}", messageCount);
+                logger.info("- 发布耗时: {} ms，发布 QPS: {}", publishMillis,
+                           String.format("%.2f", messageCount * 1000.0 / publishMillis));
+                logger.info("- 全部送达耗时: {} ms，端到端 QPS: {}", deliverMillis,
+                           String.format("%.2f", messageCount * 1000.0 / deliverMillis));
             } else {
-                logger.warn("性能测试未在预期时间内完成");
+                logger.warn("{}性能测试未在预期时间内完成，未收到 {} 条", mode, latch.getCount());
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            logger.error("性能测试被中断", e);
+            logger.error("{}性能测试被中断", mode, e);
+        } catch (RuntimeException e) {
+            logger.error("{}性能测试失败", mode, e);
+        } finally {
+            topic.removeListener(listenerId);
         }
-        
-        topic.removeListener(listenerId);
-        logger.info("=== 消息性能测试结束 ===\n");
     }
     
     /**
@@ -327,6 +497,23 @@ public class PubSubDemo {
         private String name;
         private String action;
         
+        /**
+         * 紧凑二进制布局：id（可空变长整数）、name、action（长度前缀 UTF-8），新字段只能追加在末尾
+         */
+        public static final BinarySchema<UserMessage> SCHEMA = new BinarySchema<UserMessage>() {
+            @Override
+            public void write(UserMessage value, BinaryWriter out) {
+                out.writeNullableLong(value.id);
+                out.writeString(value.name);
+                out.writeString(value.action);
+            }
+            
+            @Override
+            public UserMessage read(BinaryReader in) {
+                return new UserMessage(in.readNullableLong(), in.readString(), in.readString());
+            }
+        };
+        
         public UserMessage() {}
         
         public UserMessage(Long id, String name, String action) {
@@ -361,8 +548,10 @@ public class PubSubDemo {
         demonstrateObjectMessage();
         demonstrateMultipleTopics();
         demonstratePatternSubscription();
+        demonstrateListenerDispatch();
         demonstrateReliableMessaging();
         demonstratePerformanceTest();
+        demonstrateStreamPerformanceTest();
         
         logger.info("Redisson 发布订阅演示完成！");
     }
@@ -0,0 +1,255 @@
+package study.all.redisson.pubsub;
+
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RTopicAsync;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 批量管道化发布器
+ * 消息先进入本地缓冲，攒够 batchSize 条或等待超过 linger 后，用一个 RBatch 把整批 PUBLISH 一次性发送，
+ * N 条消息只需一次网络往返。每条消息返回独立的 future，完成值为收到该消息的订阅者数量。
+ * 在途批数受 maxInFlightBatches 限制，Redis 跟不上时 publish 会阻塞调用方，避免无限堆积内存。
+ * 批次按取出缓冲的顺序依次提交，maxInFlightBatches 为 1 时消息严格按 publish 的顺序发布。
+ */
+public class BatchedPublisher<V> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchedPublisher.class);
+
+    private final RedissonClient client;
+    private final String topicName;
+    private final PublishOptions options;
+    private final BatchOptions batchOptions;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService lingerScheduler;
+
+    private final Object lock = new Object();
+    private List<Pending<V>> buffer;
+    private long generation;
+    private boolean closed;
+
+    // 取出缓冲时按 generation 编号，提交时按编号排队，保证批次的提交顺序与取出顺序一致
+    private final Object sendOrder = new Object();
+    private long nextToSend;
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public BatchedPublisher(RedissonClient client, String topicName) {
+        this(client, topicName, PublishOptions.defaults());
+    }
+
+    public BatchedPublisher(RedissonClient client, String topicName, PublishOptions options) {
+        this.client = client;
+        this.topicName = topicName;
+        this.options = options;
+        this.batchOptions = BatchOptions.defaults()
+            .executionMode(BatchOptions.ExecutionMode.IN_MEMORY)
+            .responseTimeout(options.getResponseTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        this.inFlight = new Semaphore(options.getMaxInFlightBatches());
+        this.buffer = new ArrayList<>(options.getBatchSize());
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "batched-publisher-" + topicName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 加入发送缓冲；在途批数已满时阻塞
+     * @return 完成值为收到消息的订阅者数量
+     */
+    public CompletableFuture<Long> publish(V message) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        Batch<V> full = null;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("发布器已关闭: " + topicName);
+            }
+            buffer.add(new Pending<>(message, future));
+            if (buffer.size() >= options.getBatchSize() || options.getLinger().isZero()) {
+                full = takeBuffer();
+            } else if (buffer.size() == 1) {
+                // 每批第一条消息负责安排到期发送，批次已被提前发走时按代数识别并跳过
+                long scheduledGeneration = generation;
+                lingerScheduler.schedule(() -> flushGeneration(scheduledGeneration),
+                    options.getLinger().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return future;
+    }
+
+    /**
+     * 立即发送缓冲中的消息
+     */
+    public void flush() {
+        Batch<V> pending;
+        synchronized (lock) {
+            pending = takeBuffer();
+        }
+        send(pending);
+    }
+
+    private void flushGeneration(long scheduledGeneration) {
+        Batch<V> pending;
+        synchronized (lock) {
+            if (scheduledGeneration != generation) {
+                return;
+            }
+            pending = takeBuffer();
+        }
+        send(pending);
+    }
+
+    private Batch<V> takeBuffer() {
+        Batch<V> taken = new Batch<>(buffer, generation);
+        buffer = new ArrayList<>(options.getBatchSize());
+        generation++;
+        return taken;
+    }
+
+    /**
+     * 等轮到本批次后占用在途名额并提交，然后放行下一批
+     */
+    private void send(Batch<V> taken) {
+        awaitTurn(taken.sequence);
+        try {
+            submit(taken.messages);
+        } finally {
+            synchronized (sendOrder) {
+                nextToSend++;
+                sendOrder.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 前面的批次都已提交后返回；等待中被中断不会跳过顺序，只在返回后恢复中断标记
+     */
+    private void awaitTurn(long sequence) {
+        boolean interrupted = false;
+        synchronized (sendOrder) {
+            while (nextToSend != sequence) {
+                try {
+                    sendOrder.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(List<Pending<V>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(batch, e);
+            return;
+        }
+        try {
+            RBatch rBatch = client.createBatch(batchOptions);
+            RTopicAsync topic = rBatch.getTopic(topicName);
+            for (Pending<V> pending : batch) {
+                topic.publishAsync(pending.message).whenComplete((receivers, error) -> {
+                    if (error == null) {
+                        pending.future.complete(receivers);
+                    }
+                });
+            }
+            rBatch.executeAsync().whenComplete((result, error) -> {
+                inFlight.release();
+                if (error != null) {
+                    logger.warn("批量发布失败，{} 条消息未发送: {}", batch.size(), topicName, error);
+                    fail(batch, error);
+                } else {
+                    batchesSent.increment();
+                    messagesSent.add(batch.size());
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            logger.warn("批量发布失败，{} 条消息未发送: {}", batch.size(), topicName, e);
+            fail(batch, e);
+        }
+    }
+
+    private void fail(List<Pending<V>> batch, Throwable error) {
+        failed.add(batch.size());
+        for (Pending<V> pending : batch) {
+            pending.future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * 发送剩余消息并等待所有在途批次完成
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush();
+        lingerScheduler.shutdownNow();
+        int permits = options.getMaxInFlightBatches();
+        try {
+            if (!inFlight.tryAcquire(permits, options.getResponseTimeout().toMillis() * 2, TimeUnit.MILLISECONDS)) {
+                logger.warn("关闭批量发布器时仍有批次未完成: {}", topicName);
+            } else {
+                inFlight.release(permits);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Batch<V> {
+        final List<Pending<V>> messages;
+        final long sequence;
+
+        Batch(List<Pending<V>> messages, long sequence) {
+            this.messages = messages;
+            this.sequence = sequence;
+        }
+    }
+
+    private static class Pending<V> {
+        final V message;
+        final CompletableFuture<Long> future;
+
+        Pending(V message, CompletableFuture<Long> future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
+
+    // Getters
+    public String getTopicName() { return topicName; }
+    public long getBatchesSent() { return batchesSent.sum(); }
+    public long getMessagesSent() { return messagesSent.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public int getInFlightBatches() { return options.getMaxInFlightBatches() - inFlight.availablePermits(); }
+}
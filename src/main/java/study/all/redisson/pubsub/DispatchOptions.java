@@ -0,0 +1,142 @@
+package study.all.redisson.pubsub;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 订阅消息分发配置
+ * 工作线程数、每个队列的容量、顺序保证和队列满时的处理策略
+ */
+public class DispatchOptions<M> {
+
+    /**
+     * 顺序保证
+     */
+    public enum Ordering {
+        /** 不保证顺序，所有工作线程共享一个队列 */
+        NONE,
+        /** 同一频道的消息按到达顺序串行处理；只有一个频道时所有消息落在同一个队列上，只用到一个工作线程 */
+        PER_CHANNEL,
+        /** keyExtractor 取出的键相同的消息按到达顺序串行处理 */
+        PER_KEY
+    }
+
+    /**
+     * 队列已满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /** 阻塞 Redisson 的事件循环线程至多 blockTimeout，仍无空位则丢弃新消息 */
+        BLOCK,
+        /** 丢弃队列中最旧的消息，为新消息腾出位置 */
+        DROP_OLDEST,
+        /** 交给 spillHandler（例如写入 Redis Stream 稍后补处理） */
+        SPILL
+    }
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 1024;
+    private Ordering ordering = Ordering.NONE;
+    private Function<? super M, ?> keyExtractor;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private Duration blockTimeout = Duration.ofMillis(100);
+    private BiConsumer<CharSequence, ? super M> spillHandler;
+
+    public static <M> Builder<M> builder() {
+        return new Builder<>();
+    }
+
+    public static <M> DispatchOptions<M> defaults() {
+        return new DispatchOptions<>();
+    }
+
+    public static class Builder<M> {
+        private DispatchOptions<M> options = new DispatchOptions<>();
+
+        /**
+         * 工作线程数；有序模式下每个线程独占一个队列，消息按频道或键的哈希分配
+         */
+        public Builder<M> workers(int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("workers 必须大于 0");
+            }
+            options.workers = workers;
+            return this;
+        }
+
+        /**
+         * 每个队列的容量，是慢消费者能积压的消息上限
+         */
+        public Builder<M> queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("queueCapacity 必须大于 0");
+            }
+            options.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * 不保证顺序，所有工作线程共享一个队列（默认）
+         */
+        public Builder<M> unordered() {
+            options.ordering = Ordering.NONE;
+            options.keyExtractor = null;
+            return this;
+        }
+
+        /**
+         * 同一频道的消息串行处理，适用于订阅多个频道（如 RPatternTopic）的监听器；
+         * 单个 RTopic 只有一个频道，需要顺序时应使用 {@link #orderedPerKey}
+         */
+        public Builder<M> orderedPerChannel() {
+            options.ordering = Ordering.PER_CHANNEL;
+            options.keyExtractor = null;
+            return this;
+        }
+
+        /**
+         * 按消息中的业务键保证顺序，例如同一用户的事件串行处理，不同用户之间并行
+         */
+        public Builder<M> orderedPerKey(Function<? super M, ?> keyExtractor) {
+            options.ordering = Ordering.PER_KEY;
+            options.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        /**
+         * 队列满时阻塞事件循环线程至多 timeout；阻塞期间同一连接上的其他订阅也收不到消息
+         */
+        public Builder<M> blockOnOverflow(Duration timeout) {
+            options.overflowPolicy = OverflowPolicy.BLOCK;
+            options.blockTimeout = timeout;
+            return this;
+        }
+
+        public Builder<M> dropOldestOnOverflow() {
+            options.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+            return this;
+        }
+
+        /**
+         * 队列满时把消息交给 spillHandler，在事件循环线程上调用，实现中不应阻塞
+         */
+        public Builder<M> spillOnOverflow(BiConsumer<CharSequence, ? super M> spillHandler) {
+            options.overflowPolicy = OverflowPolicy.SPILL;
+            options.spillHandler = spillHandler;
+            return this;
+        }
+
+        public DispatchOptions<M> build() {
+            return options;
+        }
+    }
+
+    // Getters
+    public int getWorkers() { return workers; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public Ordering getOrdering() { return ordering; }
+    public Function<? super M, ?> getKeyExtractor() { return keyExtractor; }
+    public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+    public Duration getBlockTimeout() { return blockTimeout; }
+    public BiConsumer<CharSequence, ? super M> getSpillHandler() { return spillHandler; }
+}
@@ -0,0 +1,227 @@
+package study.all.redisson.pubsub;
+
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.MessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 把订阅消息从 Redisson 的 Netty 事件循环线程转交给本主题专属的有界线程池处理
+ * 监听回调在事件循环线程上执行，处理慢会卡住同一连接上的所有订阅；这里回调只做一次入队，
+ * 真正的处理在工作线程上进行。队列有界，满了按 {@link DispatchOptions.OverflowPolicy} 处理。
+ */
+public class DispatchingTopicListener<M> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DispatchingTopicListener.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final RTopic topic;
+    private final MessageListener<M> delegate;
+    private final DispatchOptions<M> options;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final int listenerId;
+    private volatile boolean running = true;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+
+    public DispatchingTopicListener(RTopic topic, Class<M> type, MessageListener<M> delegate) {
+        this(topic, type, delegate, DispatchOptions.defaults());
+    }
+
+    public DispatchingTopicListener(RTopic topic, Class<M> type, MessageListener<M> delegate,
+                                    DispatchOptions<M> options) {
+        if (options.getOverflowPolicy() == DispatchOptions.OverflowPolicy.SPILL && options.getSpillHandler() == null) {
+            throw new IllegalArgumentException("SPILL 策略必须指定 spillHandler");
+        }
+        this.topic = topic;
+        this.delegate = delegate;
+        this.options = options;
+        String namePrefix = "topic-dispatch-" + String.join(",", topic.getChannelNames());
+        if (options.getOrdering() == DispatchOptions.Ordering.NONE) {
+            // 无序：所有工作线程抢同一个队列，某条消息处理慢不会挡住其他消息
+            Lane lane = new Lane();
+            for (int i = 0; i < options.getWorkers(); i++) {
+                lane.startWorker(namePrefix + "-" + i);
+            }
+            lanes.add(lane);
+        } else {
+            // 有序：每个队列只有一个工作线程，同一频道/键总是落在同一个队列上
+            for (int i = 0; i < options.getWorkers(); i++) {
+                Lane lane = new Lane();
+                lane.startWorker(namePrefix + "-" + i);
+                lanes.add(lane);
+            }
+        }
+        this.listenerId = topic.addListener(type, this::enqueue);
+    }
+
+    /**
+     * 在事件循环线程上执行，只做入队
+     */
+    private void enqueue(CharSequence channel, M message) {
+        received.increment();
+        Envelope<M> envelope = new Envelope<>(channel, message);
+        Lane lane = laneFor(channel, message);
+        // 先计数再入队，工作线程取走后再减，深度不会出现负数
+        int depth = queueDepth.incrementAndGet();
+        boolean accepted;
+        switch (options.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                while (!lane.queue.offer(envelope)) {
+                    if (lane.queue.poll() != null) {
+                        queueDepth.decrementAndGet();
+                        dropped.increment();
+                    }
+                }
+                accepted = true;
+                break;
+            case SPILL:
+                accepted = lane.queue.offer(envelope);
+                if (!accepted) {
+                    spill(envelope);
+                }
+                break;
+            default:
+                accepted = offerBlocking(lane, envelope);
+                if (!accepted) {
+                    dropped.increment();
+                    logger.debug("分发队列已满，丢弃消息: {}", channel);
+                }
+        }
+        if (accepted) {
+            maxQueueDepth.accumulateAndGet(depth, Math::max);
+        } else {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    private boolean offerBlocking(Lane lane, Envelope<M> envelope) {
+        try {
+            return lane.queue.offer(envelope, options.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void spill(Envelope<M> envelope) {
+        spilled.increment();
+        try {
+            options.getSpillHandler().accept(envelope.channel, envelope.message);
+        } catch (Exception e) {
+            logger.warn("溢出消息转存失败: {}", envelope.channel, e);
+        }
+    }
+
+    private Lane laneFor(CharSequence channel, M message) {
+        if (lanes.size() == 1) {
+            return lanes.get(0);
+        }
+        Object key = options.getOrdering() == DispatchOptions.Ordering.PER_KEY
+            ? options.getKeyExtractor().apply(message)
+            : channel.toString();
+        int hash = key == null ? 0 : key.hashCode();
+        // 打散低位分布不均的哈希值
+        hash ^= hash >>> 16;
+        return lanes.get(Math.floorMod(hash, lanes.size()));
+    }
+
+    /**
+     * 取消订阅，等待已入队的消息处理完（最多 timeout）
+     */
+    public void close(long timeout, TimeUnit unit) {
+        topic.removeListener(listenerId);
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            for (Lane lane : lanes) {
+                for (Thread worker : lane.workers) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining > 0) {
+                        worker.join(remaining);
+                    }
+                    if (worker.isAlive()) {
+                        worker.interrupt();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (queueDepth.get() > 0) {
+            logger.warn("关闭分发器时仍有 {} 条消息未处理", queueDepth.get());
+        }
+    }
+
+    @Override
+    public void close() {
+        close(5, TimeUnit.SECONDS);
+    }
+
+    private static class Envelope<M> {
+        final CharSequence channel;
+        final M message;
+
+        Envelope(CharSequence channel, M message) {
+            this.channel = channel;
+            this.message = message;
+        }
+    }
+
+    private class Lane {
+        final BlockingQueue<Envelope<M>> queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        final List<Thread> workers = new ArrayList<>();
+
+        void startWorker(String name) {
+            Thread worker = new Thread(this::runLoop, name);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        void runLoop() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    Envelope<M> envelope = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (envelope == null) {
+                        continue;
+                    }
+                    queueDepth.decrementAndGet();
+                    try {
+                        delegate.onMessage(envelope.channel, envelope.message);
+                        processed.increment();
+                    } catch (Exception e) {
+                        failed.increment();
+                        logger.warn("处理订阅消息失败: {}", envelope.channel, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Getters
+    public int getListenerId() { return listenerId; }
+    public int getQueueDepth() { return queueDepth.get(); }
+    public int getMaxQueueDepth() { return maxQueueDepth.get(); }
+    public long getReceived() { return received.sum(); }
+    public long getProcessed() { return processed.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getDropped() { return dropped.sum(); }
+    public long getSpilled() { return spilled.sum(); }
+}
@@ -0,0 +1,360 @@
+package study.all.redisson.pubsub;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 本地频道路由器：把订阅的 glob 模式编译为一棵共享前缀的模式树，收到消息时对频道名只扫描一遍，
+ * 同时推进所有活跃的树节点（NFA 模拟），走完后落在终止节点上的订阅即为命中。
+ * 支持 Redis PSUBSCRIBE 的语法：* 任意串、? 单个字符、[abc] / [a-z] / [^a] 字符集、\ 转义。
+ * 订阅变更时重建整棵树并整体替换，匹配过程无锁，适合订阅少变、消息频繁的场景。
+ */
+public class GlobChannelRouter<H> {
+
+    private final Map<Integer, Subscription<H>> subscriptions = new LinkedHashMap<>();
+    private int nextId = 1;
+    private volatile Compiled<H> compiled = new Compiled<>(new Node<>(0), 1);
+
+    /**
+     * 添加订阅，返回用于取消的订阅 ID
+     */
+    public synchronized int subscribe(String pattern, H handler) {
+        List<Token> tokens = parse(pattern);
+        int id = nextId++;
+        subscriptions.put(id, new Subscription<>(tokens, handler));
+        rebuild();
+        return id;
+    }
+
+    public synchronized boolean unsubscribe(int id) {
+        if (subscriptions.remove(id) == null) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    public synchronized int size() {
+        return subscriptions.size();
+    }
+
+    /**
+     * 把频道名与所有订阅模式匹配，对每个命中的订阅调用一次 action
+     * @return 命中的订阅数
+     */
+    public int route(CharSequence channel, Consumer<? super H> action) {
+        Compiled<H> snapshot = compiled;
+        ActiveSet<H> current = new ActiveSet<>(snapshot.nodeCount);
+        ActiveSet<H> next = new ActiveSet<>(snapshot.nodeCount);
+        current.enter(snapshot.root);
+        for (int i = 0; i < channel.length() && current.size() > 0; i++) {
+            char c = channel.charAt(i);
+            next.clear();
+            for (int j = 0; j < current.size(); j++) {
+                Node<H> node = current.get(j);
+                if (node.loop) {
+                    next.enter(node);
+                }
+                Node<H> literal = node.literals.get(c);
+                if (literal != null) {
+                    next.enter(literal);
+                }
+                if (node.any != null) {
+                    next.enter(node.any);
+                }
+                for (ClassEdge<H> edge : node.classes) {
+                    if (edge.charClass.matches(c)) {
+                        next.enter(edge.target);
+                    }
+                }
+            }
+            ActiveSet<H> swap = current;
+            current = next;
+            next = swap;
+        }
+        int matched = 0;
+        for (int j = 0; j < current.size(); j++) {
+            for (H handler : current.get(j).handlers) {
+                action.accept(handler);
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private void rebuild() {
+        int[] counter = {1};
+        Node<H> root = new Node<>(0);
+        for (Subscription<H> subscription : subscriptions.values()) {
+            Node<H> node = root;
+            for (Token token : subscription.tokens) {
+                node = token.step(node, counter);
+            }
+            node.handlers.add(subscription.handler);
+        }
+        compiled = new Compiled<>(root, counter[0]);
+    }
+
+    static List<Token> parse(String pattern) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i++);
+            if (c == '*') {
+                // 连续的 * 与单个 * 等价
+                if (tokens.isEmpty() || tokens.get(tokens.size() - 1) != Token.STAR) {
+                    tokens.add(Token.STAR);
+                }
+            } else if (c == '?') {
+                tokens.add(Token.ANY);
+            } else if (c == '[') {
+                int end = classEnd(pattern, i);
+                tokens.add(Token.charClass(CharClass.parse(pattern.substring(i, end))));
+                i = end + 1;
+            } else {
+                if (c == '\\' && i < pattern.length()) {
+                    c = pattern.charAt(i++);
+                }
+                tokens.add(Token.literal(c));
+            }
+        }
+        return tokens;
+    }
+
+    private static int classEnd(String pattern, int from) {
+        for (int i = from; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == ']' && i > from) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("字符集缺少 ']': " + pattern);
+    }
+
+    /**
+     * 一步之内的活跃节点集合。通常只有几个节点，线性查重即可；
+     * 节点多时才按树的节点总数分配位图，避免每次路由都分配和清空大位图
+     */
+    private static class ActiveSet<H> {
+        private static final int LINEAR_LIMIT = 16;
+
+        private final int nodeCount;
+        private final List<Node<H>> nodes = new ArrayList<>();
+        private BitSet seen;
+
+        ActiveSet(int nodeCount) {
+            this.nodeCount = nodeCount;
+        }
+
+        /**
+         * 进入节点；节点后面跟着 * 时，* 可以匹配空串，因此一并进入星号节点
+         */
+        void enter(Node<H> node) {
+            while (node != null && !contains(node)) {
+                add(node);
+                node = node.star;
+            }
+        }
+
+        private boolean contains(Node<H> node) {
+            if (seen != null) {
+                return seen.get(node.id);
+            }
+            for (Node<H> active : nodes) {
+                if (active == node) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(Node<H> node) {
+            nodes.add(node);
+            if (seen != null) {
+                seen.set(node.id);
+            } else if (nodes.size() > LINEAR_LIMIT) {
+                seen = new BitSet(nodeCount);
+                for (Node<H> active : nodes) {
+                    seen.set(active.id);
+                }
+            }
+        }
+
+        void clear() {
+            if (seen != null) {
+                for (Node<H> active : nodes) {
+                    seen.clear(active.id);
+                }
+            }
+            nodes.clear();
+        }
+
+        int size() {
+            return nodes.size();
+        }
+
+        Node<H> get(int index) {
+            return nodes.get(index);
+        }
+    }
+
+    private static class Compiled<H> {
+        final Node<H> root;
+        final int nodeCount;
+
+        Compiled(Node<H> root, int nodeCount) {
+            this.root = root;
+            this.nodeCount = nodeCount;
+        }
+    }
+
+    private static class Subscription<H> {
+        final List<Token> tokens;
+        final H handler;
+
+        Subscription(List<Token> tokens, H handler) {
+            this.tokens = tokens;
+            this.handler = handler;
+        }
+    }
+
+    private static class Node<H> {
+        final int id;
+        final Map<Character, Node<H>> literals = new HashMap<>();
+        final List<ClassEdge<H>> classes = new ArrayList<>(0);
+        final List<H> handlers = new ArrayList<>(0);
+        Node<H> any;
+        Node<H> star;
+        /** 星号节点：任意字符都停留在本节点 */
+        boolean loop;
+
+        Node(int id) {
+            this.id = id;
+        }
+    }
+
+    private static class ClassEdge<H> {
+        final CharClass charClass;
+        final Node<H> target;
+
+        ClassEdge(CharClass charClass, Node<H> target) {
+            this.charClass = charClass;
+            this.target = target;
+        }
+    }
+
+    /**
+     * 模式中的一个单元，负责在树上找到或创建对应的下一个节点，相同的前缀共享节点
+     */
+    static class Token {
+        static final Token STAR = new Token('*', null);
+        static final Token ANY = new Token('?', null);
+
+        final char literal;
+        final CharClass charClass;
+
+        private Token(char literal, CharClass charClass) {
+            this.literal = literal;
+            this.charClass = charClass;
+        }
+
+        static Token literal(char c) {
+            return new Token(c, null);
+        }
+
+        static Token charClass(CharClass charClass) {
+            return new Token('[', charClass);
+        }
+
+        <H> Node<H> step(Node<H> node, int[] counter) {
+            if (this == STAR) {
+                if (node.star == null) {
+                    node.star = new Node<>(counter[0]++);
+                    node.star.loop = true;
+                }
+                return node.star;
+            }
+            if (this == ANY) {
+                if (node.any == null) {
+                    node.any = new Node<>(counter[0]++);
+                }
+                return node.any;
+            }
+            if (charClass != null) {
+                for (ClassEdge<H> edge : node.classes) {
+                    if (edge.charClass.source.equals(charClass.source)) {
+                        return edge.target;
+                    }
+                }
+                ClassEdge<H> edge = new ClassEdge<>(charClass, new Node<>(counter[0]++));
+                node.classes.add(edge);
+                return edge.target;
+            }
+            return node.literals.computeIfAbsent(literal, c -> new Node<>(counter[0]++));
+        }
+    }
+
+    /**
+     * [...] 字符集：单个字符和闭区间，开头为 ^ 时取反
+     */
+    static class CharClass {
+        final String source;
+        private final boolean negated;
+        private final char[] lows;
+        private final char[] highs;
+
+        private CharClass(String source, boolean negated, char[] lows, char[] highs) {
+            this.source = source;
+            this.negated = negated;
+            this.lows = lows;
+            this.highs = highs;
+        }
+
+        static CharClass parse(String body) {
+            boolean negated = body.startsWith("^");
+            StringBuilder lows = new StringBuilder();
+            StringBuilder highs = new StringBuilder();
+            int i = negated ? 1 : 0;
+            while (i < body.length()) {
+                char low = body.charAt(i++);
+                if (low == '\\' && i < body.length()) {
+                    low = body.charAt(i++);
+                }
+                char high = low;
+                if (i + 1 < body.length() && body.charAt(i) == '-') {
+                    high = body.charAt(i + 1);
+                    if (high == '\\' && i + 2 < body.length()) {
+                        high = body.charAt(i + 2);
+                        i++;
+                    }
+                    i += 2;
+                    // 与 Redis 一致，区间两端顺序颠倒时自动交换
+                    if (high < low) {
+                        char tmp = low;
+                        low = high;
+                        high = tmp;
+                    }
+                }
+                lows.append(low);
+                highs.append(high);
+            }
+            return new CharClass(body, negated, lows.toString().toCharArray(), highs.toString().toCharArray());
+        }
+
+        boolean matches(char c) {
+            for (int i = 0; i < lows.length; i++) {
+                if (c >= lows[i] && c <= highs[i]) {
+                    return !negated;
+                }
+            }
+            return negated;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.all.redisson.pubsub;
+
+import org.redisson.api.RPatternTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 RPatternTopic 的模式订阅
+ * 对 Redis 只发起一次 PSUBSCRIBE（redisPattern），本地的所有逻辑订阅由 {@link GlobChannelRouter} 分发，
+ * 成千上万个本地订阅共享一个 Redis 模式订阅，Redis 端无需为每个订阅做一次模式匹配。
+ * 本地订阅的模式应当是 redisPattern 的子集，否则永远收不到消息。
+ */
+public class PatternTopicRouter<M> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PatternTopicRouter.class);
+
+    private final RPatternTopic patternTopic;
+    private final GlobChannelRouter<MessageListener<M>> router = new GlobChannelRouter<>();
+    private final int listenerId;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public PatternTopicRouter(RedissonClient client, String redisPattern, Class<M> type) {
+        this.patternTopic = client.getPatternTopic(redisPattern);
+        this.listenerId = patternTopic.addListener(type, (pattern, channel, message) -> route(channel, message));
+    }
+
+    /**
+     * 添加本地订阅，语法与 PSUBSCRIBE 相同
+     * @return 用于取消订阅的 ID
+     */
+    public int subscribe(String channelPattern, MessageListener<M> listener) {
+        return router.subscribe(channelPattern, listener);
+    }
+
+    public boolean unsubscribe(int subscriptionId) {
+        return router.unsubscribe(subscriptionId);
+    }
+
+    /**
+     * 在 Redisson 的事件循环线程上执行，处理慢的订阅应自行把消息转交给其他线程
+     */
+    private void route(CharSequence channel, M message) {
+        received.increment();
+        int matched = router.route(channel, listener -> {
+            try {
+                listener.onMessage(channel, message);
+                delivered.increment();
+            } catch (Exception e) {
+                failed.increment();
+                logger.warn("处理模式订阅消息失败: {}", channel, e);
+            }
+        });
+        if (matched == 0) {
+            unmatched.increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        patternTopic.removeListener(listenerId);
+    }
+
+    // Getters
+    public int getSubscriptionCount() { return router.size(); }
+    public long getReceived() { return received.sum(); }
+    public long getUnmatched() { return unmatched.sum(); }
+    public long getDelivered() { return delivered.sum(); }
+    public long getFailed() { return failed.sum(); }
+}
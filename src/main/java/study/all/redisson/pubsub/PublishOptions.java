@@ -0,0 +1,76 @@
+package study.all.redisson.pubsub;
+
+import java.time.Duration;
+
+/**
+ * 批量发布配置
+ * 每批最多消息数、凑批等待时间、同时在途的批数（背压），以及单批执行的响应超时
+ */
+public class PublishOptions {
+
+    private int batchSize = 256;
+    private Duration linger = Duration.ofMillis(2);
+    private int maxInFlightBatches = 4;
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static PublishOptions defaults() {
+        return new PublishOptions();
+    }
+
+    public static class Builder {
+        private PublishOptions options = new PublishOptions();
+
+        /**
+         * 攒够 batchSize 条立即发送，一批只占用一次网络往返
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize 必须大于 0");
+            }
+            options.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * 不满一批时最多等待的时间，到期后有多少发多少；为 0 时每条消息都立即发送
+         */
+        public Builder linger(Duration linger) {
+            if (linger.isNegative()) {
+                throw new IllegalArgumentException("linger 不能为负");
+            }
+            options.linger = linger;
+            return this;
+        }
+
+        /**
+         * 已发出但未收到响应的批数上限，达到上限后 publish 阻塞，直到有批次完成；
+         * 为 1 时批与批严格按顺序执行
+         */
+        public Builder maxInFlightBatches(int maxInFlightBatches) {
+            if (maxInFlightBatches <= 0) {
+                throw new IllegalArgumentException("maxInFlightBatches 必须大于 0");
+            }
+            options.maxInFlightBatches = maxInFlightBatches;
+            return this;
+        }
+
+        public Builder responseTimeout(Duration responseTimeout) {
+            options.responseTimeout = responseTimeout;
+            return this;
+        }
+
+        public PublishOptions build() {
+            return options;
+        }
+    }
+
+    // Getters
+    public int getBatchSize() { return batchSize; }
+    public Duration getLinger() { return linger; }
+    public int getMaxInFlightBatches() { return maxInFlightBatches; }
+    public Duration getResponseTimeout() { return responseTimeout; }
+}
@@ -0,0 +1,223 @@
+package study.all.redisson.stream;
+
+import org.redisson.api.AutoClaimResult;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于消费者组的可靠流消费者（至少一次投递）
+ * 后台线程循环：
+ * 1. 启动时先处理本消费者名下上次未确认的消息（XREADGROUP ... 0）
+ * 2. 每隔 reclaimInterval 用 XAUTOCLAIM 认领组内空闲超过 reclaimIdle 的消息（其他消费者已死或处理失败）
+ * 3. XREADGROUP ... COUNT n BLOCK t > 批量读取新消息
+ * 每批处理完后用一次 XACK 确认所有成功的消息；处理失败的消息不确认，留给第 2 步重新投递。
+ * 同一组内启动多个消费者（不同 consumerName）即可横向扩展，每条消息只投递给其中一个。
+ */
+public class ReliableStreamConsumer<V> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReliableStreamConsumer.class);
+
+    private static final StreamMessageId PENDING_START = new StreamMessageId(0, 0);
+
+    private final RStream<String, V> stream;
+    private final String group;
+    private final String consumerName;
+    private final StreamOptions options;
+    private final StreamMessageHandler<V> handler;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private StreamMessageId reclaimCursor = PENDING_START;
+    private long nextReclaimNanos;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+
+    public ReliableStreamConsumer(RedissonClient client, String streamName, String group, String consumerName,
+                                  StreamMessageHandler<V> handler) {
+        this(client, streamName, group, consumerName, handler, StreamOptions.defaults());
+    }
+
+    public ReliableStreamConsumer(RedissonClient client, String streamName, String group, String consumerName,
+                                  StreamMessageHandler<V> handler, StreamOptions options) {
+        this(client.getStream(streamName), group, consumerName, handler, options);
+    }
+
+    /**
+     * 使用指定的编解码器读取，需与生产者一致
+     */
+    public ReliableStreamConsumer(RedissonClient client, String streamName, Codec codec, String group,
+                                  String consumerName, StreamMessageHandler<V> handler, StreamOptions options) {
+        this(client.getStream(streamName, codec), group, consumerName, handler, options);
+    }
+
+    private ReliableStreamConsumer(RStream<String, V> stream, String group, String consumerName,
+                                   StreamMessageHandler<V> handler, StreamOptions options) {
+        this.stream = stream;
+        this.group = group;
+        this.consumerName = consumerName;
+        this.options = options;
+        this.handler = handler;
+        createGroupIfAbsent();
+        this.nextReclaimNanos = System.nanoTime() + options.getReclaimInterval().toNanos();
+        this.worker = new Thread(this::runLoop, "stream-consumer-" + group + "-" + consumerName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 从流的开头建组，组建立前已写入的消息也会被消费；流不存在时一并创建
+     */
+    private void createGroupIfAbsent() {
+        try {
+            stream.createGroup(StreamCreateGroupArgs.name(group).id(StreamMessageId.ALL).makeStream());
+            logger.info("创建消费者组 {} ({})", group, stream.getName());
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private void runLoop() {
+        drainOwnPending();
+        while (running) {
+            try {
+                if (System.nanoTime() - nextReclaimNanos >= 0) {
+                    reclaimIdle();
+                    nextReclaimNanos = System.nanoTime() + options.getReclaimInterval().toNanos();
+                }
+                Map<StreamMessageId, Map<String, V>> batch = stream.readGroup(group, consumerName,
+                    StreamReadGroupArgs.neverDelivered()
+                        .count(options.getBatchSize())
+                        .timeout(options.getBlockTimeout()));
+                process(batch);
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("读取流 {} 失败，稍后重试", stream.getName(), e);
+                pause();
+            }
+        }
+        logger.info("消费者 {}/{} 已停止", group, consumerName);
+    }
+
+    /**
+     * 处理本消费者上次运行时已读取但未确认的消息（进程崩溃或重启）
+     */
+    private void drainOwnPending() {
+        StreamMessageId after = PENDING_START;
+        while (running) {
+            try {
+                Map<StreamMessageId, Map<String, V>> batch = stream.readGroup(group, consumerName,
+                    StreamReadGroupArgs.greaterThan(after).count(options.getBatchSize()));
+                if (batch == null || batch.isEmpty()) {
+                    return;
+                }
+                process(batch);
+                for (StreamMessageId id : batch.keySet()) {
+                    after = id;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("读取未确认消息失败，交给认领流程处理", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * XAUTOCLAIM 按游标分页扫描待确认列表，游标回到 0-0 表示本轮扫描完成
+     */
+    private void reclaimIdle() {
+        long idleMillis = options.getReclaimIdle().toMillis();
+        do {
+            AutoClaimResult<String, V> result = stream.autoClaim(group, consumerName, idleMillis,
+                TimeUnit.MILLISECONDS, reclaimCursor, options.getBatchSize());
+            Map<StreamMessageId, Map<String, V>> messages = result.getMessages();
+            if (messages != null && !messages.isEmpty()) {
+                reclaimed.add(messages.size());
+                logger.info("认领 {} 条空闲超过 {} ms 的消息", messages.size(), idleMillis);
+                process(messages);
+            }
+            reclaimCursor = result.getNextId() != null ? result.getNextId() : PENDING_START;
+        } while (running && !PENDING_START.equals(reclaimCursor));
+    }
+
+    private void process(Map<StreamMessageId, Map<String, V>> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        List<StreamMessageId> succeeded = new ArrayList<>(batch.size());
+        for (Map.Entry<StreamMessageId, Map<String, V>> entry : batch.entrySet()) {
+            delivered.increment();
+            Map<String, V> fields = entry.getValue();
+            if (fields == null || fields.isEmpty()) {
+                // 已被 MAXLEN 裁掉的消息在待确认列表中只剩 ID，直接确认
+                succeeded.add(entry.getKey());
+                continue;
+            }
+            try {
+                handler.onMessage(entry.getKey(), fields.get(StreamProducer.PAYLOAD_FIELD));
+                succeeded.add(entry.getKey());
+            } catch (Exception e) {
+                failed.increment();
+                logger.warn("处理消息 {} 失败，等待重新投递", entry.getKey(), e);
+            }
+        }
+        if (!succeeded.isEmpty()) {
+            // 一批只发一次 XACK；确认失败的消息会被重新投递，符合至少一次语义
+            stream.ackAsync(group, succeeded.toArray(new StreamMessageId[0])).whenComplete((count, error) -> {
+                if (error != null) {
+                    logger.warn("确认 {} 条消息失败", succeeded.size(), error);
+                } else {
+                    acked.add(count);
+                }
+            });
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(Math.min(1000, options.getBlockTimeout().toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * 停止消费，最多等待一个 blockTimeout；未确认的消息保留在组内，重启或由其他消费者认领后继续处理
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(options.getBlockTimeout().toMillis() + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Getters
+    public String getGroup() { return group; }
+    public String getConsumerName() { return consumerName; }
+    public long getDelivered() { return delivered.sum(); }
+    public long getAcked() { return acked.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getReclaimed() { return reclaimed.sum(); }
+}
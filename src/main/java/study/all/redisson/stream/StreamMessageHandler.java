@@ -0,0 +1,14 @@
+package study.all.redisson.stream;
+
+import org.redisson.api.StreamMessageId;
+
+/**
+ * 流消息处理器
+ * 正常返回即确认消息；抛出异常时消息保留在待确认列表中，超过认领时间后重新投递（至少一次），
+ * 因此处理逻辑应当是幂等的，可以用消息 ID 去重。
+ */
+@FunctionalInterface
+public interface StreamMessageHandler<V> {
+
+    void onMessage(StreamMessageId id, V message) throws Exception;
+}
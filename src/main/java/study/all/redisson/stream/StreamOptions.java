@@ -0,0 +1,88 @@
+package study.all.redisson.stream;
+
+import java.time.Duration;
+
+/**
+ * Redis Stream 消息配置
+ * 每批读取条数、阻塞等待时间、流的近似长度上限，以及死掉的消费者遗留消息的认领参数
+ */
+public class StreamOptions {
+
+    private int batchSize = 100;
+    private Duration blockTimeout = Duration.ofSeconds(2);
+    private int maxLen = 100_000;
+    private Duration reclaimIdle = Duration.ofSeconds(30);
+    private Duration reclaimInterval = Duration.ofSeconds(10);
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static StreamOptions defaults() {
+        return new StreamOptions();
+    }
+
+    public static class Builder {
+        private StreamOptions options = new StreamOptions();
+
+        /**
+         * 每次 XREADGROUP / XAUTOCLAIM 最多取回的条数，处理完后一次 XACK 确认
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize 必须大于 0");
+            }
+            options.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * 没有新消息时 XREADGROUP 的阻塞时间，也是关闭消费者时最长的等待时间；
+         * 至少 1 毫秒，BLOCK 0 表示无限等待，消费者将无法及时关闭
+         */
+        public Builder blockTimeout(Duration blockTimeout) {
+            requireMillis(blockTimeout, "blockTimeout");
+            options.blockTimeout = blockTimeout;
+            return this;
+        }
+
+        /**
+         * 写入时以 MAXLEN ~ 裁剪，流长度近似保持在该值附近；被裁掉的消息即使未确认也会丢失
+         */
+        public Builder maxLen(int maxLen) {
+            if (maxLen <= 0) {
+                throw new IllegalArgumentException("maxLen 必须大于 0");
+            }
+            options.maxLen = maxLen;
+            return this;
+        }
+
+        /**
+         * 已投递但超过 idle 仍未确认的消息视为消费者已死，每隔 interval 由存活的消费者认领重新处理
+         */
+        public Builder reclaim(Duration idle, Duration interval) {
+            requireMillis(idle, "reclaim idle");
+            requireMillis(interval, "reclaim interval");
+            options.reclaimIdle = idle;
+            options.reclaimInterval = interval;
+            return this;
+        }
+
+        public StreamOptions build() {
+            return options;
+        }
+
+        private static void requireMillis(Duration duration, String name) {
+            if (duration == null || duration.toMillis() <= 0) {
+                throw new IllegalArgumentException(name + " 必须至少为 1 毫秒");
+            }
+        }
+    }
+
+    // Getters
+    public int getBatchSize() { return batchSize; }
+    public Duration getBlockTimeout() { return blockTimeout; }
+    public int getMaxLen() { return maxLen; }
+    public Duration getReclaimIdle() { return reclaimIdle; }
+    public Duration getReclaimInterval() { return reclaimInterval; }
+}
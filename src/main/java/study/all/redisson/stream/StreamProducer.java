@@ -0,0 +1,58 @@
+package study.all.redisson.stream;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.Codec;
+
+/**
+ * 流消息生产者
+ * 每条消息以单个字段写入流（XADD ... MAXLEN ~ n），消息在被确认前一直保存在 Redis 中，
+ * 订阅方断线期间发布的消息不会丢失
+ */
+public class StreamProducer<V> {
+
+    static final String PAYLOAD_FIELD = "payload";
+
+    private final RStream<String, V> stream;
+    private final int maxLen;
+
+    public StreamProducer(RedissonClient client, String streamName) {
+        this(client, streamName, StreamOptions.defaults());
+    }
+
+    public StreamProducer(RedissonClient client, String streamName, StreamOptions options) {
+        this.stream = client.getStream(streamName);
+        this.maxLen = options.getMaxLen();
+    }
+
+    /**
+     * 使用指定的编解码器写入，消费者需使用相同的编解码器
+     */
+    public StreamProducer(RedissonClient client, String streamName, Codec codec, StreamOptions options) {
+        this.stream = client.getStream(streamName, codec);
+        this.maxLen = options.getMaxLen();
+    }
+
+    public StreamMessageId publish(V message) {
+        return stream.add(args(message));
+    }
+
+    /**
+     * 异步发布，调用方可以连续发出多条而不等待每条的往返
+     */
+    public RFuture<StreamMessageId> publishAsync(V message) {
+        return stream.addAsync(args(message));
+    }
+
+    private StreamAddArgs<String, V> args(V message) {
+        // 近似裁剪（~）只删除完整的宏节点，比精确裁剪便宜得多
+        return StreamAddArgs.<String, V>entry(PAYLOAD_FIELD, message).trimNonStrict().maxLen(maxLen).noLimit();
+    }
+
+    public RStream<String, V> getStream() {
+        return stream;
+    }
+}
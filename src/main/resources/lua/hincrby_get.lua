@@ -0,0 +1,9 @@
+-- HINCRBY 后读取同一个 Hash 的若干字段
+-- KEYS[1]: Hash 键
+-- ARGV[1]: 自增字段  ARGV[2]: 增量  ARGV[3..]: 需要读取的字段
+-- 返回: {自增后的值, 各读取字段的值（不存在时为 nil）}
+local result = {redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])}
+for i = 3, #ARGV do
+    result[i - 1] = redis.call('HGET', KEYS[1], ARGV[i])
+end
+return result